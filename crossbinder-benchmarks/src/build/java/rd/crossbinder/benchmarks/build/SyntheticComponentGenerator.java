@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.benchmarks.build;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Generates the synthetic resources, servlets and filters that the scanning benchmarks run
+ * against, into the package <code>rd.crossbinder.benchmarks.synthetic</code>. It is compiled and
+ * run by the build during <code>generate-sources</code>, with the output directory and the number
+ * of resources, servlets and filters as arguments. A file is only written when its content
+ * changes, so that an unchanged build does not recompile the generated classes.
+ *
+ * @author randondiesel
+ *
+ */
+
+public final class SyntheticComponentGenerator {
+
+	private static final String PACKAGE = "rd.crossbinder.benchmarks.synthetic";
+
+	private static final String HEADER =
+			"/*\n"
+			+ " * Copyright (c) The original author or authors\n"
+			+ " *\n"
+			+ " * Licensed under the Apache License, Version 2.0 (the \"License\"); you may not use"
+			+ " this file except\n"
+			+ " * in compliance with the License. You may obtain a copy of the License at\n"
+			+ " *\n"
+			+ " *     http://www.apache.org/licenses/LICENSE-2.0\n"
+			+ " *\n"
+			+ " * Unless required by applicable law or agreed to in writing, software distributed"
+			+ " under the License\n"
+			+ " * is distributed on an \"AS IS\" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,"
+			+ " either express\n"
+			+ " * or implied. See the License for the specific language governing permissions and"
+			+ " limitations under\n"
+			+ " * the License.\n"
+			+ " */\n"
+			+ "\n"
+			+ "package " + PACKAGE + ";\n"
+			+ "\n";
+
+	private SyntheticComponentGenerator() {
+		//NOOP
+	}
+
+	/**
+	 * @param args the output directory, followed by the number of resources, servlets and filters
+	 */
+
+	public static void main(String[] args) throws IOException {
+		if(args.length != 4) {
+			throw new IllegalArgumentException(String.format(
+					"expected output directory and resource, servlet and filter counts, got %s",
+					Arrays.toString(args)));
+		}
+		Path dir = Paths.get(args[0]).resolve(PACKAGE.replace('.', '/'));
+		Files.createDirectories(dir);
+		write(dir.resolve("SyntheticResources.java"), resources(count(args[1])));
+		write(dir.resolve("SyntheticServlets.java"), servlets(count(args[2])));
+		write(dir.resolve("SyntheticFilters.java"), filters(count(args[3])));
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static String resources(int count) {
+		StringBuilder buffer = new StringBuilder(HEADER);
+		buffer.append("import javax.ws.rs.GET;\n");
+		buffer.append("import javax.ws.rs.Path;\n\n");
+		openClass(buffer, "SyntheticResources", count, "JAX-RS resources");
+		for(int i=0; i<count; i++) {
+			String id = idOf(i, count);
+			buffer.append("\n");
+			buffer.append("\t@Path(\"/resource").append(id).append("\")\n");
+			buffer.append("\tpublic static class Resource").append(id).append(" {\n\n");
+			buffer.append("\t\t@GET\n");
+			buffer.append("\t\tpublic String get() {\n");
+			buffer.append("\t\t\treturn \"").append(id).append("\";\n");
+			buffer.append("\t\t}\n");
+			buffer.append("\t}\n");
+		}
+		return buffer.append("}\n").toString();
+	}
+
+	private static String servlets(int count) {
+		StringBuilder buffer = new StringBuilder(HEADER);
+		buffer.append("import javax.servlet.annotation.WebServlet;\n");
+		buffer.append("import javax.servlet.http.HttpServlet;\n\n");
+		openClass(buffer, "SyntheticServlets", count, "servlets");
+		for(int i=0; i<count; i++) {
+			String id = idOf(i, count);
+			buffer.append("\n");
+			buffer.append("\t@WebServlet(name = \"servlet").append(id)
+					.append("\", urlPatterns = \"/servlet").append(id).append("\")\n");
+			buffer.append("\tpublic static class Servlet").append(id)
+					.append(" extends HttpServlet {\n\n");
+			buffer.append("\t\tprivate static final long serialVersionUID = 1L;\n");
+			buffer.append("\t}\n");
+		}
+		return buffer.append("}\n").toString();
+	}
+
+	private static String filters(int count) {
+		StringBuilder buffer = new StringBuilder(HEADER);
+		buffer.append("import java.io.IOException;\n\n");
+		buffer.append("import javax.servlet.Filter;\n");
+		buffer.append("import javax.servlet.FilterChain;\n");
+		buffer.append("import javax.servlet.FilterConfig;\n");
+		buffer.append("import javax.servlet.ServletException;\n");
+		buffer.append("import javax.servlet.ServletRequest;\n");
+		buffer.append("import javax.servlet.ServletResponse;\n");
+		buffer.append("import javax.servlet.annotation.WebFilter;\n\n");
+		openClass(buffer, "SyntheticFilters", count, "servlet filters");
+		buffer.append("\n");
+		buffer.append("\tpublic abstract static class PassThroughFilter implements Filter {\n\n");
+		buffer.append("\t\t@Override\n");
+		buffer.append("\t\tpublic void init(FilterConfig filterConfig) throws ServletException {\n");
+		buffer.append("\t\t\t//NOOP\n");
+		buffer.append("\t\t}\n\n");
+		buffer.append("\t\t@Override\n");
+		buffer.append("\t\tpublic void doFilter(ServletRequest request, ServletResponse response,"
+				+ " FilterChain chain)\n");
+		buffer.append("\t\t\t\tthrows IOException, ServletException {\n");
+		buffer.append("\t\t\tchain.doFilter(request, response);\n");
+		buffer.append("\t\t}\n\n");
+		buffer.append("\t\t@Override\n");
+		buffer.append("\t\tpublic void destroy() {\n");
+		buffer.append("\t\t\t//NOOP\n");
+		buffer.append("\t\t}\n");
+		buffer.append("\t}\n");
+		for(int i=0; i<count; i++) {
+			String id = idOf(i, count);
+			buffer.append("\n");
+			buffer.append("\t@WebFilter(filterName = \"filter").append(id)
+					.append("\", urlPatterns = \"/filter").append(id).append("/*\")\n");
+			buffer.append("\tpublic static class Filter").append(id)
+					.append(" extends PassThroughFilter {\n");
+			buffer.append("\t}\n");
+		}
+		return buffer.append("}\n").toString();
+	}
+
+	private static void openClass(StringBuilder buffer, String name, int count, String kind) {
+		buffer.append("/**\n");
+		buffer.append(" * ").append(count).append(" synthetic ").append(kind)
+				.append(" for the scanning benchmarks, generated by the build.\n");
+		buffer.append(" *\n");
+		buffer.append(" * @author randondiesel\n");
+		buffer.append(" *\n");
+		buffer.append(" */\n\n");
+		buffer.append("public final class ").append(name).append(" {\n\n");
+		buffer.append("\tprivate ").append(name).append("() {\n");
+		buffer.append("\t\t//NOOP\n");
+		buffer.append("\t}\n");
+	}
+
+	/*
+	 * Identifiers are zero-padded to at least three digits, so that the generated classes sort in
+	 * declaration order.
+	 */
+
+	private static String idOf(int index, int count) {
+		int width = Math.max(3, String.valueOf(count - 1).length());
+		return String.format("%0" + width + "d", index);
+	}
+
+	private static int count(String arg) {
+		int result = Integer.parseInt(arg.trim());
+		if(result < 0) {
+			throw new IllegalArgumentException(String.format("negative component count: %s", arg));
+		}
+		return result;
+	}
+
+	private static void write(Path file, String content) throws IOException {
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		if(Files.exists(file) && Arrays.equals(bytes, Files.readAllBytes(file))) {
+			return;
+		}
+		Files.write(file, bytes);
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import rd.crossbinder.config.jackson.JacksonConfigProvider;
+
+/**
+ * Measures <code>loadYaml</code> and <code>loadJson</code> on a small and a large document with
+ * the same structure.
+ *
+ * @author randondiesel
+ *
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigLoadBenchmark {
+
+	@Param({"10", "10000"})
+	private int entries;
+
+	private byte[] yaml;
+	private byte[] json;
+
+	@Setup
+	public void setup() {
+		StringBuilder yamlDoc = new StringBuilder("entries:\n");
+		StringBuilder jsonDoc = new StringBuilder("{\"entries\":{");
+		for(int i=0; i<entries; i++) {
+			yamlDoc.append(String.format("  entry%d:%n    name: service-%d%n    port: %d%n"
+					+ "    enabled: %b%n    tags: [alpha, beta, gamma]%n", i, i, 8000 + i, i % 2 == 0));
+			jsonDoc.append(String.format("%s\"entry%d\":{\"name\":\"service-%d\",\"port\":%d,"
+					+ "\"enabled\":%b,\"tags\":[\"alpha\",\"beta\",\"gamma\"]}", (i > 0) ? "," : "", i, i,
+					8000 + i, i % 2 == 0));
+		}
+		jsonDoc.append("}}");
+		yaml = yamlDoc.toString().getBytes(StandardCharsets.UTF_8);
+		json = jsonDoc.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public JacksonConfigProvider loadYaml() throws Exception {
+		JacksonConfigProvider provider = new JacksonConfigProvider();
+		provider.loadYaml(LoadConfig.class, new ByteArrayInputStream(yaml));
+		return provider;
+	}
+
+	@Benchmark
+	public JacksonConfigProvider loadJson() throws Exception {
+		JacksonConfigProvider provider = new JacksonConfigProvider();
+		provider.loadJson(LoadConfig.class, new ByteArrayInputStream(json));
+		return provider;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Configuration classes
+
+	public static class LoadConfig {
+
+		@JsonProperty("entries")
+		public Map<String, Entry> entries;
+	}
+
+	public static class Entry {
+
+		@JsonProperty("name")
+		public String name;
+
+		@JsonProperty("port")
+		public int port;
+
+		@JsonProperty("enabled")
+		public boolean enabled;
+
+		@JsonProperty("tags")
+		public List<String> tags;
+	}
+}
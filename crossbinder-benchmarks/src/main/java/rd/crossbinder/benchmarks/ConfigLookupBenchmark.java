@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import rd.crossbinder.config.jackson.JacksonConfigProvider;
+import rd.crossbinder.config.jackson.LookupResult;
+
+/**
+ * Measures lookups on <code>JacksonConfigProvider</code> for values nested at different depths,
+ * in a root class at different depths of a class hierarchy, with and without a path index.
+ *
+ * @author randondiesel
+ *
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigLookupBenchmark {
+
+	private static final Class<?>[] LEVELS = {
+		Level0.class, Level1.class, Level2.class, Level3.class,
+		Level4.class, Level5.class, Level6.class, Level7.class
+	};
+
+	@Param({"1", "4", "8"})
+	private int depth;
+
+	@Param({"1", "4", "8"})
+	private int hierarchy;
+
+	@Param({"false", "true"})
+	private boolean indexed;
+
+	private JacksonConfigProvider provider;
+	private String                valuePath;
+	private String                missingPath;
+
+	@Setup
+	public void setup() throws Exception {
+		StringBuilder doc = new StringBuilder();
+		StringBuilder path = new StringBuilder("node");
+		String indent = "";
+		doc.append("node:\n");
+		for(int i=1; i<depth; i++) {
+			indent += "  ";
+			doc.append(indent).append("child:\n");
+			path.append(".child");
+		}
+		doc.append(indent).append("  value: 42\n");
+		valuePath = path.append(".value").toString();
+		missingPath = valuePath.replace(".value", ".absent");
+
+		provider = new JacksonConfigProvider();
+		if(indexed) {
+			provider.indexPaths();
+		}
+		provider.loadYaml(LEVELS[hierarchy - 1],
+				new ByteArrayInputStream(doc.toString().getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Benchmark
+	public Object getValue() {
+		return provider.getValue(valuePath, Integer.class);
+	}
+
+	@Benchmark
+	public boolean contains() {
+		return provider.contains(valuePath);
+	}
+
+	@Benchmark
+	public boolean containsMissing() {
+		return provider.contains(missingPath);
+	}
+
+	@Benchmark
+	public Object containsThenGetValue() {
+		return provider.contains(valuePath) ? provider.getValue(valuePath, Integer.class) : null;
+	}
+
+	@Benchmark
+	public LookupResult lookup() {
+		return provider.lookup(valuePath, Integer.class);
+	}
+
+	@Benchmark
+	public int getInt() {
+		return provider.getInt(valuePath, 0);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Configuration classes. The lookup root is declared at the top of the hierarchy, so deeper
+	// root classes have to be searched through more superclasses.
+
+	public static class Node {
+
+		@JsonProperty("child")
+		public Node child;
+
+		@JsonProperty("value")
+		public Integer value;
+	}
+
+	public static class Level0 {
+
+		@JsonProperty("node")
+		public Node node;
+	}
+
+	public static class Level1 extends Level0 {
+
+		@JsonProperty("field1")
+		public String field1;
+	}
+
+	public static class Level2 extends Level1 {
+
+		@JsonProperty("field2")
+		public String field2;
+	}
+
+	public static class Level3 extends Level2 {
+
+		@JsonProperty("field3")
+		public String field3;
+	}
+
+	public static class Level4 extends Level3 {
+
+		@JsonProperty("field4")
+		public String field4;
+	}
+
+	public static class Level5 extends Level4 {
+
+		@JsonProperty("field5")
+		public String field5;
+	}
+
+	public static class Level6 extends Level5 {
+
+		@JsonProperty("field6")
+		public String field6;
+	}
+
+	public static class Level7 extends Level6 {
+
+		@JsonProperty("field7")
+		public String field7;
+	}
+}
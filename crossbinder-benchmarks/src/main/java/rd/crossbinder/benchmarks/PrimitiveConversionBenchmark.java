@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.dropwizard.Configuration;
+import io.dropwizard.util.Duration;
+import rd.crossbinder.dropwiz.DropWizConfigProvider;
+
+/**
+ * Measures reads of primitive and converted values from <code>DropWizConfigProvider</code>, both
+ * through the cached primitive accessors and through <code>getValue</code> with conversion.
+ *
+ * @author randondiesel
+ *
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveConversionBenchmark {
+
+	private DropWizConfigProvider provider;
+
+	@Setup
+	public void setup() {
+		provider = new DropWizConfigProvider(new BenchmarkConfiguration());
+	}
+
+	@Benchmark
+	public int getIntFromText() {
+		return provider.getInt("port", 0);
+	}
+
+	@Benchmark
+	public Object getValueIntegerFromText() {
+		return provider.getValue("port", Integer.class);
+	}
+
+	@Benchmark
+	public long getLongFromNumber() {
+		return provider.getLong("connections", 0L);
+	}
+
+	@Benchmark
+	public double getDouble() {
+		return provider.getDouble("ratio", 0.0);
+	}
+
+	@Benchmark
+	public boolean getBooleanFromText() {
+		return provider.getBoolean("enabled", false);
+	}
+
+	@Benchmark
+	public Object getValueDurationFromText() {
+		return provider.getValue("timeout", Duration.class);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Configuration class
+
+	public static class BenchmarkConfiguration extends Configuration {
+
+		@JsonProperty("port")
+		public String port = "8080";
+
+		@JsonProperty("connections")
+		public long connections = 512;
+
+		@JsonProperty("ratio")
+		public double ratio = 0.75;
+
+		@JsonProperty("enabled")
+		public String enabled = "true";
+
+		@JsonProperty("timeout")
+		public String timeout = "30 seconds";
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.dropwiz;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.codahale.metrics.MetricRegistry;
+
+import io.dropwizard.Configuration;
+import io.dropwizard.jackson.Jackson;
+import io.dropwizard.setup.Environment;
+import rd.crossbinder.hod.Injector;
+
+/**
+ * Measures the cost of scanning a package of synthetic components and registering them with a
+ * fresh Dropwizard environment, through the same loaders that <code>DropWizApplication</code>
+ * uses. Injection is a no-op, so that only scanning, instantiation and registration are measured.
+ * The benchmark lives in the package of the loaders, which are not public.
+ *
+ * @author randondiesel
+ *
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ComponentScanBenchmark {
+
+	private static final List<String> PACKAGES =
+			Collections.singletonList("rd.crossbinder.benchmarks.synthetic");
+
+	private final Injector      injector = target -> { };
+	private final Configuration config = new Configuration();
+
+	private Environment env;
+
+	@Setup(Level.Invocation)
+	public void createEnvironment() {
+		// the loaders never validate, and the bundled validator fails to start on newer JDKs
+		env = new Environment("benchmark", Jackson.newObjectMapper(), null, new MetricRegistry(),
+				getClass().getClassLoader());
+	}
+
+	@Benchmark
+	public Environment resources() {
+		ComponentIndex components = ComponentIndex.scan(PACKAGES);
+		new ResourceLoader<Configuration>(injector, config, env).loadAll(components);
+		return env;
+	}
+
+	@Benchmark
+	public Environment servlets() {
+		new ServletLoader(injector, env).loadAll(ComponentIndex.scan(PACKAGES));
+		return env;
+	}
+
+	@Benchmark
+	public Environment filters() {
+		new FilterLoader(injector, env).loadAll(ComponentIndex.scan(PACKAGES));
+		return env;
+	}
+
+	@Benchmark
+	public Environment all() {
+		ComponentIndex components = ComponentIndex.scan(PACKAGES);
+		new ResourceLoader<Configuration>(injector, config, env).loadAll(components);
+		new ServletLoader(injector, env).loadAll(components);
+		new FilterLoader(injector, env).loadAll(components);
+		return env;
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.dropwiz;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * Creates the components of a list of types, either one after the other or concurrently on a
+ * fork-join pool. Either way, the components are returned in the order of their types, so that
+ * they can be registered in a deterministic order on a single thread.
+ *
+ * @author randondiesel
+ *
+ */
+
+final class ComponentCreator {
+
+	private ComponentCreator() {
+		//NOOP
+	}
+
+	/**
+	 * @param factory creates the component of a type, or returns <code>null</code> if it cannot be
+	 * created. It must not throw, and when a pool is given, it must be safe to call concurrently.
+	 * @param pool the pool to create components on, or <code>null</code> to create them on the
+	 * calling thread
+	 * @return the components, in the order of the given types
+	 */
+
+	static <R> List<R> createAll(List<Class<?>> types, Function<Class<?>, R> factory,
+			ForkJoinPool pool) {
+		List<R> result = new ArrayList<>(types.size());
+		if(pool == null || types.size() < 2) {
+			for(Class<?> type : types) {
+				result.add(factory.apply(type));
+			}
+			return result;
+		}
+		List<ForkJoinTask<R>> tasks = new ArrayList<>(types.size());
+		for(Class<?> type : types) {
+			tasks.add(pool.submit(() -> factory.apply(type)));
+		}
+		for(ForkJoinTask<R> task : tasks) {
+			result.add(task.join());
+		}
+		return result;
+	}
+}
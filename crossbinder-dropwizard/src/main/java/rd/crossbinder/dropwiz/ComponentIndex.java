@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.dropwiz;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import javax.servlet.Filter;
+import javax.servlet.Servlet;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.annotation.WebServlet;
+import javax.ws.rs.Path;
+
+import rd.classpath.ClasspathBrowser;
+import rd.classpath.ScanPath;
+import rd.crossbinder.web.ComponentIndexFile;
+
+/**
+ * The component classes found by a single scan of the application packages: resources, with
+ * <code>@Path</code> on the class or on any of its methods, and servlets and filters, with
+ * <code>@WebServlet</code> and <code>@WebFilter</code>. All loaders query the same index, so the
+ * packages are scanned once per application start, or not at all when the class path holds
+ * component indexes written at build time that cover them. Each list is sorted by class name, so
+ * that components are registered in the same order on every start.
+ *
+ * @author randondiesel
+ *
+ */
+
+final class ComponentIndex {
+
+	private static final Logger LOGGER = Logger.getLogger(ComponentIndex.class.getName());
+
+	private static final Comparator<Class<?>> BY_NAME = Comparator.comparing(Class::getName);
+
+	private final List<Class<?>> resourceTypes;
+	private final List<Class<?>> servletTypes;
+	private final List<Class<?>> filterTypes;
+
+	private ComponentIndex(List<Class<?>> resourceTypes, List<Class<?>> servletTypes,
+			List<Class<?>> filterTypes) {
+		this.resourceTypes = resourceTypes;
+		this.servletTypes = servletTypes;
+		this.filterTypes = filterTypes;
+	}
+
+	/**
+	 * Finds the components of the given packages in the component index files on the class path,
+	 * and scans the packages that the index files do not cover. See {@link ComponentIndexFile}.
+	 */
+
+	static ComponentIndex load(List<String> scanPkgNames) {
+		ComponentIndexFile file =
+				ComponentIndexFile.load(Thread.currentThread().getContextClassLoader());
+		List<String> indexedPkgNames = file.getIndexedPackages(scanPkgNames);
+		if(indexedPkgNames.isEmpty()) {
+			return scan(scanPkgNames);
+		}
+		Set<Class<?>> resources =
+				new LinkedHashSet<>(file.listClasses(Path.class, indexedPkgNames));
+		Set<Class<?>> servlets =
+				new LinkedHashSet<>(file.listClasses(WebServlet.class, indexedPkgNames));
+		Set<Class<?>> filters =
+				new LinkedHashSet<>(file.listClasses(WebFilter.class, indexedPkgNames));
+		LOGGER.fine(String.format("indexed components of %s: %d resources, %d servlets, %d filters",
+				indexedPkgNames, resources.size(), servlets.size(), filters.size()));
+
+		List<String> unindexedPkgNames = new ArrayList<>(scanPkgNames);
+		unindexedPkgNames.removeAll(indexedPkgNames);
+		if(!unindexedPkgNames.isEmpty()) {
+			LOGGER.info(String.format("packages %s are not covered by a component index, "
+					+ "scanning them", unindexedPkgNames));
+			ComponentIndex scanned = scan(unindexedPkgNames);
+			resources.addAll(scanned.resourceTypes);
+			servlets.addAll(scanned.servletTypes);
+			filters.addAll(scanned.filterTypes);
+		}
+		return new ComponentIndex(sorted(resources), typesOf(servlets, Servlet.class),
+				typesOf(filters, Filter.class));
+	}
+
+	/**
+	 * Finds the components of the given packages by scanning them, regardless of any index file.
+	 */
+
+	static ComponentIndex scan(List<String> scanPkgNames) {
+		long start = System.nanoTime();
+		ScanPath scanp = new ScanPath();
+		for(String pkgName : scanPkgNames) {
+			scanp.includePackage(pkgName);
+		}
+		ClasspathBrowser cpb = new ClasspathBrowser();
+		cpb.load(scanp);
+
+		Set<Class<?>> resources = new LinkedHashSet<>();
+		resources.addAll(cpb.listAnnotatedClasses(Path.class));
+		resources.addAll(cpb.listClassesWithAnnotatedMethods(Path.class));
+
+		ComponentIndex result = new ComponentIndex(sorted(resources),
+				typesOf(cpb.listAnnotatedClasses(WebServlet.class), Servlet.class),
+				typesOf(cpb.listAnnotatedClasses(WebFilter.class), Filter.class));
+		LOGGER.fine(String.format("scanned %s in %d ms: %d resources, %d servlets, %d filters",
+				scanPkgNames, (System.nanoTime() - start) / 1000000, result.resourceTypes.size(),
+				result.servletTypes.size(), result.filterTypes.size()));
+		return result;
+	}
+
+	/**
+	 * @return classes annotated with <code>@Path</code>, or with methods annotated with it
+	 */
+
+	List<Class<?>> getResourceTypes() {
+		return resourceTypes;
+	}
+
+	/**
+	 * @return servlet classes annotated with <code>@WebServlet</code>
+	 */
+
+	List<Class<?>> getServletTypes() {
+		return servletTypes;
+	}
+
+	/**
+	 * @return filter classes annotated with <code>@WebFilter</code>
+	 */
+
+	List<Class<?>> getFilterTypes() {
+		return filterTypes;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static List<Class<?>> typesOf(Collection<Class<?>> types, Class<?> baseType) {
+		List<Class<?>> result = new ArrayList<>();
+		for(Class<?> type : types) {
+			if(baseType.isAssignableFrom(type)) {
+				result.add(type);
+			}
+		}
+		return sorted(result);
+	}
+
+	private static List<Class<?>> sorted(Iterable<Class<?>> types) {
+		List<Class<?>> result = new ArrayList<>();
+		for(Class<?> type : types) {
+			result.add(type);
+		}
+		result.sort(BY_NAME);
+		return Collections.unmodifiableList(result);
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.dropwiz;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+
+import rd.crossbinder.config.jackson.LookupListener;
+
+/**
+ * Records configuration lookups in a Dropwizard metric registry. For every path found at least
+ * once, up to a maximum number of paths, a hit counter, a miss counter and a gauge of all lookups
+ * are registered under <code>crossbinder.config.&lt;path&gt;</code>. Lookups of any other path,
+ * such as probes for optional or dynamic keys, are only counted in
+ * <code>crossbinder.config-untracked.hits</code> and <code>crossbinder.config-untracked.misses</code>,
+ * so that they do not grow the registry. The time taken by one in every {@value #LATENCY_SAMPLING}
+ * lookups is recorded in the <code>crossbinder.config.lookup-nanos</code> histogram, which keeps
+ * the cost of its reservoir off most lookups. Counters are striped, so concurrent lookups of the
+ * same path do not contend.
+ *
+ * @author randondiesel
+ *
+ */
+
+public class ConfigLookupMetrics implements LookupListener {
+
+	public static final int DEFAULT_MAX_PATHS = 1000;
+	public static final int LATENCY_SAMPLING  = 16;
+
+	private static final String PREFIX           = "crossbinder.config";
+	private static final String UNTRACKED_PREFIX = "crossbinder.config-untracked";
+
+	private final MetricRegistry                   registry;
+	private final int                              maxPaths;
+	private final Histogram                        latency;
+	private final Counter                          untrackedHits;
+	private final Counter                          untrackedMisses;
+	private final ConcurrentMap<String, PathStats> stats;
+	private final AtomicInteger                    pathCount;
+
+	public ConfigLookupMetrics(MetricRegistry registry) {
+		this(registry, DEFAULT_MAX_PATHS);
+	}
+
+	/**
+	 * @param maxPaths the maximum number of paths for which metrics of their own are registered
+	 */
+
+	public ConfigLookupMetrics(MetricRegistry registry, int maxPaths) {
+		this.registry = registry;
+		this.maxPaths = maxPaths;
+		latency = registry.histogram(MetricRegistry.name(PREFIX, "lookup-nanos"));
+		untrackedHits = registry.counter(MetricRegistry.name(UNTRACKED_PREFIX, "hits"));
+		untrackedMisses = registry.counter(MetricRegistry.name(UNTRACKED_PREFIX, "misses"));
+		stats = new ConcurrentHashMap<>();
+		pathCount = new AtomicInteger();
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Methods of interface LookupListener
+
+	@Override
+	public void lookupCompleted(String path, boolean found, long nanos) {
+		PathStats pathStats = stats.get(path);
+		if(pathStats == null && found) {
+			pathStats = track(path);
+		}
+		if(pathStats == null) {
+			(found ? untrackedHits : untrackedMisses).inc();
+		}
+		else if(found) {
+			pathStats.hits.inc();
+		}
+		else {
+			pathStats.misses.inc();
+		}
+		if(ThreadLocalRandom.current().nextInt(LATENCY_SAMPLING) == 0) {
+			latency.update(nanos);
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	/**
+	 * @return the metrics of the given path, or <code>null</code> if the maximum number of paths
+	 * is already tracked
+	 */
+
+	private PathStats track(String path) {
+		if(pathCount.get() >= maxPaths) {
+			return null;
+		}
+		return stats.computeIfAbsent(path, key -> {
+			if(pathCount.incrementAndGet() > maxPaths) {
+				return null;
+			}
+			return new PathStats(key);
+		});
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner class holding the metrics of one path
+
+	private final class PathStats {
+
+		private final Counter hits;
+		private final Counter misses;
+
+		PathStats(String path) {
+			hits = registry.counter(MetricRegistry.name(PREFIX, path, "hits"));
+			misses = registry.counter(MetricRegistry.name(PREFIX, path, "misses"));
+			String lookupsName = MetricRegistry.name(PREFIX, path, "lookups");
+			try {
+				registry.register(lookupsName, (Gauge<Long>) () -> hits.getCount() + misses.getCount());
+			}
+			catch(IllegalArgumentException exep) {
+				//NOOP: already registered by an earlier instance on the same registry
+			}
+		}
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.dropwiz;
+
+/**
+ * Converts a configuration value into an instance of a requested type.
+ *
+ * @author randondiesel
+ *
+ */
+
+@FunctionalInterface
+public interface Converter {
+
+	/**
+	 * @param value the non-null configuration value
+	 * @param targetType the requested type
+	 * @return the converted value, or <code>null</code> if the value cannot be converted
+	 */
+
+	Object convert(Object value, Class<?> targetType) throws Exception;
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.dropwiz;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import io.dropwizard.util.Duration;
+import io.dropwizard.util.Size;
+
+/**
+ * Registry of converters between configuration value types. The converter for a pair of source
+ * and target classes is resolved once and cached, including the fact that no converter exists.
+ * Besides explicitly registered converters, the registry converts between primitives, their
+ * wrappers and strings, from strings to enums, Dropwizard <code>Duration</code> and
+ * <code>Size</code>, and between arrays, collections and comma separated strings.
+ *
+ * @author randondiesel
+ *
+ */
+
+public class ConverterRegistry {
+
+	private static final Logger LOGGER = Logger.getLogger(ConverterRegistry.class.getName());
+
+	private static final Converter NONE = (value, targetType) -> null;
+
+	private final Map<Class<?>, Map<Class<?>, Converter>> registered;
+	private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, Converter>> resolved;
+
+	public ConverterRegistry() {
+		registered = new HashMap<>();
+		resolved = new ConcurrentHashMap<>();
+		register(String.class, Duration.class, (value, type) -> Duration.parse((String) value));
+		register(String.class, Size.class, (value, type) -> Size.parse((String) value));
+	}
+
+	/**
+	 * Registers a converter for values of the source type, or any of its subtypes, into the target
+	 * type. A converter registered later for the same pair replaces the earlier one.
+	 */
+
+	public synchronized ConverterRegistry register(Class<?> sourceType, Class<?> targetType,
+			Converter converter) {
+		registered.computeIfAbsent(sourceType, key -> new HashMap<>()).put(targetType, converter);
+		resolved.clear();
+		return this;
+	}
+
+	/**
+	 * @return the value converted to the target type, or <code>null</code> if it cannot be converted
+	 */
+
+	public Object convert(Object value, Class<?> targetType) {
+		if(value == null) {
+			return null;
+		}
+		if(ClassUtils.primitiveToWrapper(targetType).isInstance(value)) {
+			return value;
+		}
+		Converter converter = find(value.getClass(), targetType);
+		if(converter == NONE) {
+			return null;
+		}
+		try {
+			return converter.convert(value, targetType);
+		}
+		catch(Exception exep) {
+			LOGGER.log(Level.FINE, String.format("unable to convert %s to %s", value,
+					targetType.getName()), exep);
+			return null;
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private Converter find(Class<?> sourceType, Class<?> targetType) {
+		ConcurrentMap<Class<?>, Converter> bySource = resolved.get(sourceType);
+		if(bySource == null) {
+			bySource = new ConcurrentHashMap<>();
+			ConcurrentMap<Class<?>, Converter> prev = resolved.putIfAbsent(sourceType, bySource);
+			if(prev != null) {
+				bySource = prev;
+			}
+		}
+		Converter result = bySource.get(targetType);
+		if(result == null) {
+			result = resolve(sourceType, targetType);
+			bySource.put(targetType, result);
+		}
+		return result;
+	}
+
+	private Converter resolve(Class<?> sourceType, Class<?> targetType) {
+		Converter result = findRegistered(sourceType, targetType);
+		if(result != null) {
+			return result;
+		}
+
+		Class<?> boxedType = ClassUtils.primitiveToWrapper(targetType);
+		if((ClassUtils.isPrimitiveWrapper(boxedType) || boxedType.equals(String.class))
+				&& isSimple(sourceType)) {
+			return ConverterRegistry::convertSimple;
+		}
+		if(targetType.isEnum() && CharSequence.class.isAssignableFrom(sourceType)) {
+			return ConverterRegistry::convertEnum;
+		}
+		if(targetType.isArray() && isMultiValued(sourceType)) {
+			return this::convertArray;
+		}
+		if(targetType.isAssignableFrom(ArrayList.class) && isMultiValued(sourceType)) {
+			return (value, type) -> new ArrayList<>(toList(value));
+		}
+		if(targetType.isAssignableFrom(LinkedHashSet.class) && isMultiValued(sourceType)) {
+			return (value, type) -> new LinkedHashSet<>(toList(value));
+		}
+		return NONE;
+	}
+
+	private synchronized Converter findRegistered(Class<?> sourceType, Class<?> targetType) {
+		for(Class<?> type : ClassUtils.hierarchy(sourceType, ClassUtils.Interfaces.INCLUDE)) {
+			Map<Class<?>, Converter> byTarget = registered.get(type);
+			if(byTarget != null && byTarget.containsKey(targetType)) {
+				return byTarget.get(targetType);
+			}
+		}
+		return null;
+	}
+
+	private static boolean isSimple(Class<?> sourceType) {
+		return CharSequence.class.isAssignableFrom(sourceType) || sourceType.isEnum()
+				|| ClassUtils.isPrimitiveOrWrapper(sourceType);
+	}
+
+	private static boolean isMultiValued(Class<?> sourceType) {
+		return sourceType.isArray() || Collection.class.isAssignableFrom(sourceType)
+				|| CharSequence.class.isAssignableFrom(sourceType);
+	}
+
+	private static List<?> toList(Object value) {
+		if(value instanceof Collection) {
+			return new ArrayList<>((Collection<?>) value);
+		}
+		if(value.getClass().isArray()) {
+			int length = Array.getLength(value);
+			List<Object> result = new ArrayList<>(length);
+			for(int i=0; i<length; i++) {
+				result.add(Array.get(value, i));
+			}
+			return result;
+		}
+		return Arrays.asList(StringUtils.stripAll(StringUtils.split(value.toString(), ',')));
+	}
+
+	private Object convertArray(Object value, Class<?> targetType) {
+		Class<?> compType = targetType.getComponentType();
+		List<?> items = toList(value);
+		Object result = Array.newInstance(compType, items.size());
+		for(int i=0; i<items.size(); i++) {
+			Object item = convert(items.get(i), compType);
+			if(item == null) {
+				return null;
+			}
+			Array.set(result, i, item);
+		}
+		return result;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Object convertEnum(Object value, Class<?> targetType) {
+		String name = value.toString().trim();
+		for(Object constant : targetType.getEnumConstants()) {
+			if(((Enum) constant).name().equalsIgnoreCase(name)) {
+				return constant;
+			}
+		}
+		return null;
+	}
+
+	private static Object convertSimple(Object value, Class<?> targetType) {
+		Class<?> boxedType = ClassUtils.primitiveToWrapper(targetType);
+		String text = value.toString().trim();
+		if(boxedType.equals(String.class)) {
+			return value.toString();
+		}
+		if(boxedType.equals(Boolean.class)) {
+			return Boolean.valueOf(text);
+		}
+		if(boxedType.equals(Character.class)) {
+			return (text.length() == 1) ? text.charAt(0) : null;
+		}
+		if(boxedType.equals(Integer.class)) {
+			return Integer.parseInt(text);
+		}
+		if(boxedType.equals(Long.class)) {
+			return Long.parseLong(text);
+		}
+		if(boxedType.equals(Double.class)) {
+			return Double.parseDouble(text);
+		}
+		if(boxedType.equals(Float.class)) {
+			return Float.parseFloat(text);
+		}
+		if(boxedType.equals(Short.class)) {
+			return Short.parseShort(text);
+		}
+		if(boxedType.equals(Byte.class)) {
+			return Byte.parseByte(text);
+		}
+		return null;
+	}
+}
@@ -18,13 +18,20 @@ package rd.crossbinder.dropwiz;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Logger;
 
 import io.dropwizard.Application;
 import io.dropwizard.Configuration;
 import io.dropwizard.lifecycle.Managed;
 import io.dropwizard.setup.Environment;
+import rd.crossbinder.config.jackson.CompositeConfigProvider;
+import rd.crossbinder.config.jackson.EventTracers;
+import rd.crossbinder.config.jackson.InjectionTracker;
+import rd.crossbinder.hod.ConfigurationProvider;
 import rd.crossbinder.hod.Crossbinder;
+import rd.crossbinder.hod.Injector;
+import rd.crossbinder.web.StartupTimer;
 
 /**
  *
@@ -37,12 +44,20 @@ public class DropWizApplication<T extends Configuration> extends Application<T>
 
 	private static final Logger LOGGER = Logger.getLogger(DropWizApplication.class.getName());
 
-	private List<String> scanPkgNames;
-	private Crossbinder  crossbinder;
-	private boolean      servletFlag;
+	private List<String>                scanPkgNames;
+	private List<ConfigurationProvider> overlays;
+	private Crossbinder                 crossbinder;
+	private DropWizConfigProvider       configProvider;
+	private boolean                     servletFlag;
+	private boolean                     indexFlag;
+	private boolean                     metricsFlag;
+	private boolean                     reinjectFlag;
+	private int                         parallelism;
+	private boolean                     lazyFlag;
 
 	public DropWizApplication() {
 		scanPkgNames = new ArrayList<>();
+		overlays = new ArrayList<>();
 	}
 
 	public final DropWizApplication<T> setCrossBinder(Crossbinder cb) {
@@ -60,6 +75,77 @@ public class DropWizApplication<T extends Configuration> extends Application<T>
 		return this;
 	}
 
+	/**
+	 * Indexes all configuration paths once before crossbinder is configured, so that lookups made
+	 * during injection do not walk the configuration object graph.
+	 */
+
+	public final DropWizApplication<T> indexConfigPaths() {
+		indexFlag = true;
+		return this;
+	}
+
+	/**
+	 * Records hits, misses and latency of configuration lookups in the metric registry of the
+	 * environment. See {@link ConfigLookupMetrics}.
+	 */
+
+	public final DropWizApplication<T> enableConfigMetrics() {
+		metricsFlag = true;
+		return this;
+	}
+
+	/**
+	 * Adds a configuration layer that takes precedence over the Dropwizard configuration, such as
+	 * an <code>EnvironmentConfigProvider</code> for per-node overrides. Overlays added earlier take
+	 * precedence over those added later. See {@link CompositeConfigProvider}.
+	 */
+
+	public final DropWizApplication<T> addConfigOverlay(ConfigurationProvider overlay) {
+		overlays.add(overlay);
+		return this;
+	}
+
+	/**
+	 * Records the configuration paths read while injecting each resource, servlet and filter, and
+	 * injects again only the instances whose values changed when the configuration is replaced
+	 * through {@link DropWizConfigProvider#update(Configuration)}. Neither Jetty nor the Jersey
+	 * resource set is rebuilt. See {@link InjectionTracker}.
+	 */
+
+	public final DropWizApplication<T> reinjectOnConfigChange() {
+		reinjectFlag = true;
+		return this;
+	}
+
+	/**
+	 * Creates and injects resources, servlets and filters concurrently on a fork-join pool of the
+	 * given parallelism, which is shut down once all of them are registered. Registration itself
+	 * stays on the calling thread, in the same order as without this option. The injector of the
+	 * crossbinder instance, and the constructors of the components, must then be safe to call
+	 * concurrently.
+	 */
+
+	public final DropWizApplication<T> createComponentsInParallel(int parallelism) {
+		if(parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be positive");
+		}
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Registers a lightweight delegate for each servlet and filter, and constructs and injects the
+	 * actual instance only when it is first needed. Servlets with a non-negative
+	 * <code>loadOnStartup</code> are still created at startup; other servlets and all filters are
+	 * created on their first request. Applies only along with {@link #registerServletsAndFilters()}.
+	 */
+
+	public final DropWizApplication<T> createServletsAndFiltersLazily() {
+		lazyFlag = true;
+		return this;
+	}
+
 	////////////////////////////////////////////////////////////////////////////
 	// Methods of base class Application
 
@@ -74,19 +160,65 @@ public class DropWizApplication<T extends Configuration> extends Application<T>
 			throw new RuntimeException("crossbinder should not be started yet");
 		}
 
-		DropWizConfigProvider dcp = new DropWizConfigProvider(config);
-		crossbinder.configure(dcp);
+		StartupTimer timer = new StartupTimer();
+		long phaseStart = System.nanoTime();
+
+		DropWizConfigProvider dcp = new DropWizConfigProvider(config, indexFlag);
+		if(metricsFlag) {
+			dcp.monitorLookups(new ConfigLookupMetrics(env.metrics()));
+		}
+		configProvider = dcp;
+
+		ConfigurationProvider provider = dcp;
+		if(!overlays.isEmpty()) {
+			List<ConfigurationProvider> layers = new ArrayList<>(overlays);
+			layers.add(dcp);
+			CompositeConfigProvider composite = new CompositeConfigProvider(layers);
+			dcp.addChangeListener(composite::clearOwners);
+			provider = composite;
+		}
+		InjectionTracker tracker = null;
+		if(reinjectFlag) {
+			tracker = new InjectionTracker(provider);
+			dcp.addChangeListener(tracker::refresh);
+			provider = tracker;
+		}
+		phaseStart = timer.endPhase("config", phaseStart);
+		crossbinder.configure(provider);
+		phaseStart = timer.endPhase("configure", phaseStart);
 		crossbinder.start();
+		phaseStart = timer.endPhase("start", phaseStart);
+
+		Injector injector = EventTracers.trace(crossbinder.injector());
+		if(tracker != null) {
+			injector = tracker.track(injector);
+		}
 
-		new ResourceLoader<T>(crossbinder, config, env).loadAll(scanPkgNames);
+		ComponentIndex components = ComponentIndex.load(scanPkgNames);
+		phaseStart = timer.endPhase("scan", phaseStart);
+		ForkJoinPool pool = (parallelism > 1) ? new ForkJoinPool(parallelism) : null;
+		try {
+			new ResourceLoader<T>(injector, config, env).loadAll(components, pool, timer);
+			phaseStart = timer.endPhase("resources", phaseStart);
 
-		if(servletFlag) {
-			new ServletLoader(crossbinder, env).loadAll(scanPkgNames);
-			new FilterLoader(crossbinder, env).loadAll(scanPkgNames);
+			if(servletFlag) {
+				new ServletLoader(injector, env, lazyFlag).loadAll(components, pool, timer);
+				phaseStart = timer.endPhase("servlets", phaseStart);
+				new FilterLoader(injector, env, lazyFlag).loadAll(components, pool, timer);
+				phaseStart = timer.endPhase("filters", phaseStart);
+			}
+		}
+		finally {
+			if(pool != null) {
+				pool.shutdown();
+			}
 		}
 
 		env.lifecycle().manage(new CrossBinderManaged());
 		postRun(config, env);
+		timer.endPhase("post-run", phaseStart);
+		timer.finish();
+		StartupMetrics.register(timer, env.metrics());
 	}
 
 	////////////////////////////////////////////////////////////////////////////
@@ -96,6 +228,15 @@ public class DropWizApplication<T extends Configuration> extends Application<T>
 		return crossbinder;
 	}
 
+	/**
+	 * @return the provider serving the Dropwizard configuration, available once
+	 * {@link #run(Configuration, Environment)} has started
+	 */
+
+	protected final DropWizConfigProvider getConfigProvider() {
+		return configProvider;
+	}
+
 	protected void postRun(T config, Environment env) throws Exception {
 		//NOOP
 	}
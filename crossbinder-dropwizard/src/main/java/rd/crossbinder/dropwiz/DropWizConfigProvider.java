@@ -16,16 +16,16 @@
 
 package rd.crossbinder.dropwiz;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.apache.commons.lang3.StringUtils;
-
-import com.fasterxml.jackson.annotation.JsonProperty;
-
 import io.dropwizard.Configuration;
-import rd.crossbinder.hod.ConfigurationProvider;
+import rd.crossbinder.config.jackson.ConfigView;
+import rd.crossbinder.config.jackson.LookupConfigProvider;
+import rd.crossbinder.config.jackson.LookupListener;
+import rd.crossbinder.config.jackson.LookupResult;
 
 /**
  *
@@ -33,181 +33,125 @@ import rd.crossbinder.hod.ConfigurationProvider;
  *
  */
 
-public class DropWizConfigProvider implements ConfigurationProvider {
+public class DropWizConfigProvider extends LookupConfigProvider {
 
 	private static final Logger LOGGER = Logger.getLogger(DropWizConfigProvider.class.getName());
 
-	private Configuration dwConfig;
+	/*
+	 * The configuration, its index and the primitive values parsed from it are replaced together
+	 * by update(), so readers always see a consistent set.
+	 */
+
+	private volatile ConfigView state;
+
+	private final boolean           indexFlag;
+	private final ConverterRegistry converters = new ConverterRegistry();
+	private final List<Runnable>    changeListeners = new CopyOnWriteArrayList<>();
 
 	public DropWizConfigProvider(Configuration config) {
-		dwConfig = config;
+		this(config, false);
 	}
 
-	////////////////////////////////////////////////////////////////////////////
-	// Methods of interface ConfigurationProvider
+	/**
+	 * @param config the bound Dropwizard configuration
+	 * @param indexed if <code>true</code>, all configuration paths are indexed up front so that
+	 * lookups no longer walk the configuration object graph
+	 */
 
-	@Override
-	public boolean contains(String path) {
-		LOGGER.fine(String.format("checking for configuration %s", path));
-		try {
-			return (getValueRecursive(path, dwConfig) != null);
-		}
-		catch (Exception exep) {
-			//NOOP
-		}
-		return false;
+	public DropWizConfigProvider(Configuration config, boolean indexed) {
+		indexFlag = indexed;
+		state = ConfigView.of(config, indexed);
 	}
 
-	@Override
-	public Object getValue(String path, Class<?> type) {
-		Object value = null;
-		try {
-			value = getValueRecursive(path, dwConfig);
-		}
-		catch (Exception exep) {
-			return null;
-		}
-		if(value == null) {
-			return null;
-		}
+	/**
+	 * Replaces the configuration served by this provider, for example after it has been read again
+	 * from its source, and then runs the registered change listeners.
+	 */
 
-		try {
-			if(type.equals(Integer.TYPE)) {
-				return Integer.parseInt(value.toString());
+	public void update(Configuration config) {
+		state = ConfigView.of(config, indexFlag);
+		for(Runnable changeListener : changeListeners) {
+			try {
+				changeListener.run();
 			}
-			if(type.equals(Float.TYPE)) {
-				return Float.parseFloat(value.toString());
-			}
-			if(type.equals(Long.TYPE)) {
-				return Long.parseLong(value.toString());
-			}
-			if(type.equals(Double.TYPE)) {
-				return Double.parseDouble(value.toString());
-			}
-			if(type.equals(Boolean.TYPE)) {
-				return new Boolean(value.toString());
-			}
-			if(type.equals(Byte.TYPE)) {
-				return Byte.parseByte(value.toString());
+			catch(RuntimeException exep) {
+				LOGGER.log(Level.WARNING, "error notifying configuration change", exep);
 			}
 		}
-		catch(Exception exep) {
-			return null;
-		}
+	}
 
-		if(type.isAssignableFrom(value.getClass())) {
-			return value;
-		}
-		return null;
+	/**
+	 * Registers an action that is run whenever the configuration is replaced through
+	 * {@link #update(Configuration)}.
+	 */
+
+	public void addChangeListener(Runnable listener) {
+		changeListeners.add(listener);
+	}
+
+	/**
+	 * @return the registry used to convert configuration values that are not directly assignable
+	 * to the requested type. Additional converters may be registered before crossbinder is
+	 * configured with this provider.
+	 */
+
+	public ConverterRegistry getConverters() {
+		return converters;
+	}
+
+	/**
+	 * Reports every lookup, including those made through {@link #contains(String)} and
+	 * {@link #getValue(String, Class)}, to the given listener. See {@link ConfigLookupMetrics}.
+	 */
+
+	public final DropWizConfigProvider monitorLookups(LookupListener listener) {
+		setLookupListener(listener);
+		return this;
 	}
 
 	////////////////////////////////////////////////////////////////////////////
-	// Helper methods
+	// Primitive accessors. Each value is parsed once and kept in primitive form, so repeated reads
+	// neither parse nor allocate.
 
-	private Object getValueRecursive(String path, Object inst) throws Exception {
-		String[] parts = path.split("\\.", 2);
-		Object value = getValueFromFields(parts[0], inst.getClass(), inst);
-		if(value == null) {
-			value = getValueFromMethods(parts[0], inst.getClass(), inst);
-		}
-		if(value != null) {
-			if(parts.length > 1) {
-				return getValueRecursive(parts[1], value);
-			}
-			else {
-				return value;
-			}
-		}
-		return null;
+	public int getInt(String path, int defaultValue) {
+		return state.getInt(path, defaultValue);
 	}
 
-	private Object getValueFromFields(String path, Class<?> type, Object inst) throws Exception {
-		Field[] fields = type.getDeclaredFields();
-		for(Field field : fields) {
-			JsonProperty ann = field.getAnnotation(JsonProperty.class);
-			if(ann != null) {
-				String annName = ann.value();
-				if(StringUtils.isBlank(annName)) {
-					annName = ann.defaultValue();
-				}
-				if(StringUtils.isBlank(annName)) {
-					annName = field.getName();
-				}
-				if(StringUtils.equals(path, annName)) {
-					boolean accessible = field.isAccessible();
-					if(!accessible) {
-						field.setAccessible(true);
-					}
-					Object value = field.get(inst);
-					if(!accessible) {
-						field.setAccessible(false);
-					}
-					return value;
-				}
-			}
-		}
-		return null;
+	public long getLong(String path, long defaultValue) {
+		return state.getLong(path, defaultValue);
 	}
 
-	private Object getValueFromMethods(String path, Class<?> type, Object inst) throws Exception {
-		Method[] methods = type.getDeclaredMethods();
-		for(Method method : methods) {
-			JsonProperty ann = method.getAnnotation(JsonProperty.class);
-			if(ann != null) {
-				String annName = ann.value();
-				if(StringUtils.isBlank(annName)) {
-					annName = ann.defaultValue();
-				}
-				if(StringUtils.isBlank(annName)) {
-					annName = getNameFromMethod(method);
-				}
-				if(StringUtils.equals(path, annName)) {
-					boolean accessible = method.isAccessible();
-					if(!accessible) {
-						method.setAccessible(true);
-					}
-					Object value = method.invoke(inst);
-					if(!accessible) {
-						method.setAccessible(false);
-					}
-					return value;
-				}
-			}
-		}
-		return null;
+	public double getDouble(String path, double defaultValue) {
+		return state.getDouble(path, defaultValue);
 	}
 
-	private String getNameFromMethod(Method method) {
-		if(method.getParameterCount() > 0) {
-			return null;
-		}
-		if(method.getReturnType().equals(Void.TYPE)) {
-			return null;
-		}
+	public boolean getBoolean(String path, boolean defaultValue) {
+		return state.getBoolean(path, defaultValue);
+	}
 
-		String mthdName = method.getName();
-		if(mthdName.startsWith("get")) {
-			if(mthdName.length() <= 3) {
-				return null;
-			}
-			if(method.getReturnType().equals(Boolean.class) || method.getReturnType().equals(Boolean.TYPE)) {
-				return null;
-			}
-			StringBuffer buffer = new StringBuffer(StringUtils.removeStart(mthdName, "get"));
-			buffer.setCharAt(0, Character.toLowerCase(buffer.charAt(0)));
-			return buffer.toString();
+	////////////////////////////////////////////////////////////////////////////
+	// Methods of base class LookupConfigProvider
+
+	@Override
+	protected LookupResult lookupValue(String path) {
+		return state.lookup(path);
+	}
+
+	/*
+	 * A value that cannot be converted to the requested type is reported as missing at the last
+	 * segment of the path.
+	 */
+
+	@Override
+	protected LookupResult lookupValue(String path, Class<?> type) {
+		LookupResult result = lookupValue(path);
+		if(!result.isFound()) {
+			return result;
 		}
-		else if(!mthdName.startsWith("is")) {
-			if(mthdName.length() <= 2) {
-				return null;
-			}
-			if(!method.getReturnType().equals(Boolean.class) && !method.getReturnType().equals(Boolean.TYPE)) {
-				return null;
-			}
-			StringBuffer buffer = new StringBuffer(StringUtils.removeStart(mthdName, "is"));
-			buffer.setCharAt(0, Character.toLowerCase(buffer.charAt(0)));
-			return buffer.toString();
+		Object value = converters.convert(result.getValue(), type);
+		if(value == null) {
+			return LookupResult.missingAtLastSegment(path);
 		}
-		return null;
+		return (value == result.getValue()) ? result : LookupResult.found(value);
 	}
 }
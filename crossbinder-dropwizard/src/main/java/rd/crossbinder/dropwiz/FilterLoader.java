@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Logger;
 
 import javax.servlet.DispatcherType;
@@ -31,9 +32,11 @@ import javax.servlet.annotation.WebInitParam;
 import org.apache.commons.lang3.StringUtils;
 
 import io.dropwizard.setup.Environment;
-import rd.classpath.ClasspathBrowser;
-import rd.classpath.ScanPath;
-import rd.crossbinder.hod.Crossbinder;
+import rd.crossbinder.config.jackson.EventTracer;
+import rd.crossbinder.config.jackson.EventTracers;
+import rd.crossbinder.hod.Injector;
+import rd.crossbinder.web.LazyFilter;
+import rd.crossbinder.web.StartupTimer;
 
 /**
  *
@@ -45,58 +48,105 @@ class FilterLoader {
 
 	private static final Logger LOGGER = Logger.getLogger(FilterLoader.class.getName());
 
-	private Crossbinder crossbinder;
+	private static final EventTracer TRACER = EventTracers.get();
+
+	private Injector    injector;
 	private Environment env;
+	private boolean     lazyFlag;
+
+	public FilterLoader(Injector injector, Environment env) {
+		this(injector, env, false);
+	}
 
-	public FilterLoader(Crossbinder cb, Environment env) {
-		crossbinder = cb;
+	/**
+	 * @param lazyFlag whether each filter is registered as a {@link LazyFilter}, which creates the
+	 *        actual filter on its first request
+	 */
+
+	public FilterLoader(Injector injector, Environment env, boolean lazyFlag) {
+		this.injector = injector;
 		this.env = env;
+		this.lazyFlag = lazyFlag;
+	}
+
+	public void loadAll(ComponentIndex index) {
+		loadAll(index, null, null);
 	}
 
-	public void loadAll(List<String> scanPkgNames) {
-		List<Class<?>> filterTypes = findFilterTypes(scanPkgNames);
+	/**
+	 * Creates and injects the filters on the given pool, if any, and registers them afterwards on
+	 * the calling thread, in the order of the index. If a timer is given, the time taken to
+	 * construct and to inject each filter is recorded in it. Lazily created filters are neither
+	 * created on the pool nor recorded in the timer.
+	 */
+
+	public void loadAll(ComponentIndex index, ForkJoinPool pool, StartupTimer timer) {
+		List<Class<?>> filterTypes = index.getFilterTypes();
 		LOGGER.fine(String.format("found potential filters: %s", filterTypes));
+		List<Filter> filters = lazyFlag ? createLazily(filterTypes)
+				: ComponentCreator.createAll(filterTypes, type -> createFilter(type, timer), pool);
+		for(int i=0; i<filterTypes.size(); i++) {
+			if(filters.get(i) != null) {
+				Object token = TRACER.beginRegistration();
+				registerFilter(filterTypes.get(i), filters.get(i));
+				if(token != null) {
+					TRACER.endRegistration(token, "filter", filterTypes.get(i));
+				}
+			}
+		}
+	}
+
+	private List<Filter> createLazily(List<Class<?>> filterTypes) {
+		List<Filter> result = new ArrayList<>(filterTypes.size());
 		for(Class<?> type : filterTypes) {
-			registerFilter(type);
+			result.add(isValid(type) ? new LazyFilter(type, () -> instantiate(type, null)) : null);
 		}
+		return result;
 	}
 
-	private List<Class<?>> findFilterTypes(List<String> scanPkgNames) {
-		ScanPath scanp = new ScanPath();
-		for(String pkgName : scanPkgNames) {
-			scanp.includePackage(pkgName);
+	private Filter createFilter(Class<?> type, StartupTimer timer) {
+		if(!isValid(type)) {
+			return null;
 		}
-		ClasspathBrowser cpb = new ClasspathBrowser();
-		cpb.load(scanp);
-
-		List<Class<?>> types = cpb.listAnnotatedClasses(WebFilter.class);
-		List<Class<?>> result = new ArrayList<>();
-		for(Class<?> type : types) {
-			if(Filter.class.isAssignableFrom(type)) {
-				result.add(type);
-			}
+		try {
+			return instantiate(type, timer);
+		}
+		catch(Exception exep) {
+			LOGGER.warning(String.format("error creating filter %s", type.getName()));
+			return null;
 		}
-		return result;
 	}
 
-	private void registerFilter(Class<?> type) {
-		LOGGER.fine(String.format("registering filter: %s", type.getName()));
+	private boolean isValid(Class<?> type) {
 		WebFilter ann = type.getAnnotation(WebFilter.class);
-		String filterName = ann.filterName();
-		if(StringUtils.isBlank(filterName)) {
+		if(StringUtils.isBlank(ann.filterName())) {
 			LOGGER.warning(String.format("filter %s: name could not be blank", type.getName()));
-			return;
-		}
-
-		String[] patterns = ann.urlPatterns();
-		if(patterns == null || patterns.length == 0) {
-			patterns = ann.value();
+			return false;
 		}
 		String[] srvNames = ann.servletNames();
-		if((patterns == null || patterns.length == 0) && (srvNames == null || srvNames.length == 0)) {
+		if(urlPatternsOf(ann).length == 0 && (srvNames == null || srvNames.length == 0)) {
 			LOGGER.warning(String.format("filter %s: url patterns or servlet names missing", type.getName()));
-			return;
+			return false;
+		}
+		return true;
+	}
+
+	private Filter instantiate(Class<?> type, StartupTimer timer) throws Exception {
+		long begin = System.nanoTime();
+		Filter filter = (Filter) type.newInstance();
+		long created = System.nanoTime();
+		injector.inject(filter);
+		if(timer != null) {
+			timer.recordComponent(type, created - begin, System.nanoTime() - created);
 		}
+		return filter;
+	}
+
+	private void registerFilter(Class<?> type, Filter filter) {
+		LOGGER.fine(String.format("registering filter: %s", type.getName()));
+		WebFilter ann = type.getAnnotation(WebFilter.class);
+		String[] patterns = urlPatternsOf(ann);
+		String[] srvNames = ann.servletNames();
 
 		EnumSet<DispatcherType> dispatchers = null;
 		DispatcherType[] dtypes = ann.dispatcherTypes();
@@ -104,16 +154,7 @@ class FilterLoader {
 			dispatchers = EnumSet.copyOf(Arrays.asList(dtypes));
 		}
 
-		Filter filter = null;
-		try {
-			filter = (Filter) type.newInstance();
-			crossbinder.injector().inject(filter);
-		}
-		catch(Exception exep) {
-			LOGGER.warning(String.format("error creating filter %s", type.getName()));
-			return;
-		}
-		FilterRegistration.Dynamic dynamic = env.servlets().addFilter(filterName, filter);
+		FilterRegistration.Dynamic dynamic = env.servlets().addFilter(ann.filterName(), filter);
 		dynamic.addMappingForUrlPatterns(dispatchers, true, patterns);
 		dynamic.addMappingForServletNames(dispatchers, true, srvNames);
 
@@ -128,4 +169,12 @@ class FilterLoader {
 			}
 		}
 	}
+
+	private static String[] urlPatternsOf(WebFilter ann) {
+		String[] patterns = ann.urlPatterns();
+		if(patterns == null || patterns.length == 0) {
+			patterns = ann.value();
+		}
+		return (patterns == null) ? new String[0] : patterns;
+	}
 }
@@ -20,20 +20,18 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.ws.rs.Path;
-
 import org.apache.commons.lang3.ArrayUtils;
 
 import io.dropwizard.setup.Environment;
-import rd.classpath.ClasspathBrowser;
-import rd.classpath.ScanPath;
-import rd.crossbinder.hod.Crossbinder;
+import rd.crossbinder.config.jackson.EventTracer;
+import rd.crossbinder.config.jackson.EventTracers;
+import rd.crossbinder.hod.Injector;
+import rd.crossbinder.web.StartupTimer;
 
 /**
  *
@@ -46,49 +44,78 @@ class ResourceLoader<T> {
 
 	private static final Logger LOGGER = Logger.getLogger(ResourceLoader.class.getName());
 
-	private Crossbinder crossbinder;
+	private static final EventTracer TRACER = EventTracers.get();
+
+	private Injector    injector;
 	private T           config;
 	private Environment env;
 
-	public ResourceLoader(Crossbinder cb, T config, Environment env) {
-		crossbinder = cb;
+	public ResourceLoader(Injector injector, T config, Environment env) {
+		this.injector = injector;
 		this.config = config;
 		this.env = env;
 	}
 
-	public void loadAll(List<String> scanPkgNames) {
-		Set<Class<?>> resTypes = findResourceTypes(scanPkgNames);
+	public void loadAll(ComponentIndex index) {
+		loadAll(index, null, null);
+	}
+
+	/**
+	 * Creates and injects the resources on the given pool, if any, and registers them afterwards
+	 * on the calling thread, in the order of the index. If a timer is given, the time taken to
+	 * construct and to inject each resource is recorded in it. A resource that fails to register
+	 * is logged and skipped.
+	 */
+
+	public void loadAll(ComponentIndex index, ForkJoinPool pool, StartupTimer timer) {
+		List<Class<?>> resTypes = index.getResourceTypes();
 		LOGGER.fine(String.format("found potential resources: %s", resTypes));
-		for(Class<?> cls : resTypes) {
-			try {
-				Object resource = createResource(cls, config, env);
-				if(resource != null) {
-					LOGGER.fine(String.format("resource created: %s", cls.getName()));
-					crossbinder.injector().inject(resource);
-					env.jersey().register(resource);
-				}
-				else {
-					LOGGER.warning(String.format("error creating resource: %s", cls.getName()));
-				}
-			}
-			catch(Exception exep) {
-				LOGGER.log(Level.WARNING, exep.getMessage(), exep);
+		List<Object> resources =
+				ComponentCreator.createAll(resTypes, cls -> createAndInject(cls, timer), pool);
+		for(Object resource : resources) {
+			if(resource != null) {
+				registerResource(resource);
 			}
 		}
 	}
 
-	private Set<Class<?>> findResourceTypes(List<String> scanPkgNames) {
-		ScanPath scanp = new ScanPath();
-		for(String pkgName : scanPkgNames) {
-			scanp.includePackage(pkgName);
+	private void registerResource(Object resource) {
+		Object token = TRACER.beginRegistration();
+		try {
+			env.jersey().register(resource);
+		}
+		catch(Exception exep) {
+			LOGGER.log(Level.WARNING, String.format("error registering resource: %s",
+					resource.getClass().getName()), exep);
 		}
-		ClasspathBrowser cpb = new ClasspathBrowser();
-		cpb.load(scanp);
+		finally {
+			if(token != null) {
+				TRACER.endRegistration(token, "resource", resource.getClass());
+			}
+		}
+	}
 
-		HashSet<Class<?>> result = new HashSet<>();
-		result.addAll(cpb.listAnnotatedClasses(Path.class));
-		result.addAll(cpb.listClassesWithAnnotatedMethods(Path.class));
-		return result;
+	private Object createAndInject(Class<?> cls, StartupTimer timer) {
+		try {
+			long begin = System.nanoTime();
+			Object resource = createResource(cls, config, env);
+			if(resource != null) {
+				LOGGER.fine(String.format("resource created: %s", cls.getName()));
+				long created = System.nanoTime();
+				injector.inject(resource);
+				if(timer != null) {
+					timer.recordComponent(cls, created - begin, System.nanoTime() - created);
+				}
+			}
+			else {
+				LOGGER.warning(String.format("error creating resource: %s", cls.getName()));
+			}
+			return resource;
+		}
+		catch(Exception exep) {
+			LOGGER.log(Level.WARNING, exep.getMessage(), exep);
+			return null;
+		}
 	}
 
 	private Constructor<?> findResourceConstructor(Class<?> cls, T config) {
@@ -18,6 +18,7 @@ package rd.crossbinder.dropwiz;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,9 +30,11 @@ import javax.servlet.annotation.WebServlet;
 import org.apache.commons.lang3.StringUtils;
 
 import io.dropwizard.setup.Environment;
-import rd.classpath.ClasspathBrowser;
-import rd.classpath.ScanPath;
-import rd.crossbinder.hod.Crossbinder;
+import rd.crossbinder.config.jackson.EventTracer;
+import rd.crossbinder.config.jackson.EventTracers;
+import rd.crossbinder.hod.Injector;
+import rd.crossbinder.web.LazyServlet;
+import rd.crossbinder.web.StartupTimer;
 
 /**
  *
@@ -43,69 +46,111 @@ class ServletLoader {
 
 	private static final Logger LOGGER = Logger.getLogger(ServletLoader.class.getName());
 
-	private Crossbinder crossbinder;
+	private static final EventTracer TRACER = EventTracers.get();
+
+	private Injector    injector;
 	private Environment env;
+	private boolean     lazyFlag;
+
+	public ServletLoader(Injector injector, Environment env) {
+		this(injector, env, false);
+	}
 
-	public ServletLoader(Crossbinder cb, Environment env) {
-		crossbinder = cb;
+	/**
+	 * @param lazyFlag whether each servlet is registered as a {@link LazyServlet}, which creates
+	 *        the actual servlet when it is first needed
+	 */
+
+	public ServletLoader(Injector injector, Environment env, boolean lazyFlag) {
+		this.injector = injector;
 		this.env = env;
+		this.lazyFlag = lazyFlag;
+	}
+
+	public void loadAll(ComponentIndex index) {
+		loadAll(index, null, null);
 	}
 
-	public void loadAll(List<String> scanPkgNames) {
-		List<Class<?>> servletTypes = findServletTypes(scanPkgNames);
+	/**
+	 * Creates and injects the servlets on the given pool, if any, and registers them afterwards on
+	 * the calling thread, in the order of the index. If a timer is given, the time taken to
+	 * construct and to inject each servlet is recorded in it. Lazily created servlets are neither
+	 * created on the pool nor recorded in the timer.
+	 */
+
+	public void loadAll(ComponentIndex index, ForkJoinPool pool, StartupTimer timer) {
+		List<Class<?>> servletTypes = index.getServletTypes();
 		LOGGER.fine(String.format("found potential servlets: %s", servletTypes));
-		for(Class<?> type : servletTypes) {
-			registerServlet(type);
+		List<Servlet> servlets = lazyFlag ? createLazily(servletTypes)
+				: ComponentCreator.createAll(servletTypes, type -> createServlet(type, timer), pool);
+		for(int i=0; i<servletTypes.size(); i++) {
+			if(servlets.get(i) != null) {
+				Object token = TRACER.beginRegistration();
+				registerServlet(servletTypes.get(i), servlets.get(i));
+				if(token != null) {
+					TRACER.endRegistration(token, "servlet", servletTypes.get(i));
+				}
+			}
 		}
 	}
 
-	private List<Class<?>> findServletTypes(List<String> scanPkgNames) {
-		ScanPath scanp = new ScanPath();
-		for(String pkgName : scanPkgNames) {
-			scanp.includePackage(pkgName);
-		}
-		ClasspathBrowser cpb = new ClasspathBrowser();
-		cpb.load(scanp);
-
-		List<Class<?>> types = cpb.listAnnotatedClasses(WebServlet.class);
-		List<Class<?>> result = new ArrayList<>();
-		for(Class<?> type : types) {
-			if(Servlet.class.isAssignableFrom(type)) {
-				result.add(type);
+	private List<Servlet> createLazily(List<Class<?>> servletTypes) {
+		List<Servlet> result = new ArrayList<>(servletTypes.size());
+		for(Class<?> type : servletTypes) {
+			if(isValid(type)) {
+				boolean startupFlag = type.getAnnotation(WebServlet.class).loadOnStartup() >= 0;
+				result.add(new LazyServlet(type, startupFlag, () -> instantiate(type, null)));
+			}
+			else {
+				result.add(null);
 			}
 		}
 		return result;
 	}
 
-	private void registerServlet(Class<?> type) {
-		LOGGER.fine(String.format("registering servlet: %s", type.getName()));
-		WebServlet ann = type.getAnnotation(WebServlet.class);
-		String srvName = ann.name();
-		if(StringUtils.isBlank(srvName)) {
-			LOGGER.warning(String.format("servlet %s: name could not be blank", type.getName()));
-			return;
-		}
-		String[] patterns = ann.urlPatterns();
-		if(patterns == null || patterns.length == 0) {
-			patterns = ann.value();
-			if(patterns == null || patterns.length == 0) {
-				LOGGER.warning(String.format("url patterns missing for servlet %s", type.getName()));
-				return;
-			}
+	private Servlet createServlet(Class<?> type, StartupTimer timer) {
+		if(!isValid(type)) {
+			return null;
 		}
-		int losu = ann.loadOnStartup();
-		Servlet servlet = null;
 		try {
-			servlet = (Servlet) type.newInstance();
-			crossbinder.injector().inject(servlet);
+			return instantiate(type, timer);
 		}
 		catch(Exception exep) {
 			LOGGER.log(Level.WARNING, String.format("error creating servlet %s", type.getName()), exep);
-			return;
+			return null;
+		}
+	}
+
+	private boolean isValid(Class<?> type) {
+		WebServlet ann = type.getAnnotation(WebServlet.class);
+		if(StringUtils.isBlank(ann.name())) {
+			LOGGER.warning(String.format("servlet %s: name could not be blank", type.getName()));
+			return false;
+		}
+		if(urlPatternsOf(ann).length == 0) {
+			LOGGER.warning(String.format("url patterns missing for servlet %s", type.getName()));
+			return false;
+		}
+		return true;
+	}
+
+	private Servlet instantiate(Class<?> type, StartupTimer timer) throws Exception {
+		long begin = System.nanoTime();
+		Servlet servlet = (Servlet) type.newInstance();
+		long created = System.nanoTime();
+		injector.inject(servlet);
+		if(timer != null) {
+			timer.recordComponent(type, created - begin, System.nanoTime() - created);
 		}
-		ServletRegistration.Dynamic dynamic = env.servlets().addServlet(srvName, servlet);
-		dynamic.addMapping(patterns);
-		dynamic.setLoadOnStartup(losu);
+		return servlet;
+	}
+
+	private void registerServlet(Class<?> type, Servlet servlet) {
+		LOGGER.fine(String.format("registering servlet: %s", type.getName()));
+		WebServlet ann = type.getAnnotation(WebServlet.class);
+		ServletRegistration.Dynamic dynamic = env.servlets().addServlet(ann.name(), servlet);
+		dynamic.addMapping(urlPatternsOf(ann));
+		dynamic.setLoadOnStartup(ann.loadOnStartup());
 		if(ann.initParams() == null) {
 			return;
 		}
@@ -117,4 +162,12 @@ class ServletLoader {
 			}
 		}
 	}
+
+	private static String[] urlPatternsOf(WebServlet ann) {
+		String[] patterns = ann.urlPatterns();
+		if(patterns == null || patterns.length == 0) {
+			patterns = ann.value();
+		}
+		return (patterns == null) ? new String[0] : patterns;
+	}
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.dropwiz;
+
+import java.util.Map;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import rd.crossbinder.web.StartupTimer;
+
+/**
+ * Publishes the outcome of a finished {@link StartupTimer} as gauges, all in milliseconds:
+ * <code>crossbinder.startup.total</code>, <code>crossbinder.startup.&lt;phase&gt;</code> for each
+ * phase, and <code>crossbinder.startup.component.&lt;class&gt;.construct|inject</code> for the
+ * slowest components only, so that the number of gauges does not grow with the number of
+ * components.
+ *
+ * @author randondiesel
+ *
+ */
+
+final class StartupMetrics {
+
+	private static final String PREFIX = "crossbinder.startup";
+
+	private StartupMetrics() {
+		//NOOP
+	}
+
+	static void register(StartupTimer timer, MetricRegistry registry) {
+		register(registry, "total", timer.getTotalMillis());
+		for(Map.Entry<String, Long> entry : timer.getPhaseMillis().entrySet()) {
+			register(registry, entry.getKey(), entry.getValue());
+		}
+		for(Class<?> type : timer.getSlowestComponents()) {
+			String name = MetricRegistry.name("component", type.getName());
+			register(registry, MetricRegistry.name(name, "construct"),
+					timer.getConstructMillis(type));
+			register(registry, MetricRegistry.name(name, "inject"), timer.getInjectMillis(type));
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static void register(MetricRegistry registry, String name, long millis) {
+		String fullName = MetricRegistry.name(PREFIX, name);
+		registry.remove(fullName);
+		registry.register(fullName, (Gauge<Long>) () -> millis);
+	}
+}
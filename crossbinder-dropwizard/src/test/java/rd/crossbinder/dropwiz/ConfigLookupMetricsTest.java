@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.dropwiz;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class ConfigLookupMetricsTest {
+
+	private MetricRegistry      registry;
+	private ConfigLookupMetrics metrics;
+
+	@Before
+	public void setUp() {
+		registry = new MetricRegistry();
+		metrics = new ConfigLookupMetrics(registry, 2);
+	}
+
+	@Test
+	public void pathsFoundAreTracked() {
+		metrics.lookupCompleted("server.port", true, 100L);
+		metrics.lookupCompleted("server.port", true, 100L);
+		metrics.lookupCompleted("server.port", false, 100L);
+		assertEquals(2L, count("crossbinder.config.server.port.hits"));
+		assertEquals(1L, count("crossbinder.config.server.port.misses"));
+		assertEquals(3L, registry.getGauges().get("crossbinder.config.server.port.lookups")
+				.getValue());
+	}
+
+	@Test
+	public void missesOfUnknownPathsAreOnlyCounted() {
+		metrics.lookupCompleted("optional.a", false, 100L);
+		metrics.lookupCompleted("optional.b", false, 100L);
+		assertEquals(2L, count("crossbinder.config-untracked.misses"));
+		assertFalse(registry.getNames().contains("crossbinder.config.optional.a.misses"));
+	}
+
+	@Test
+	public void pathsBeyondTheMaximumAreOnlyCounted() {
+		metrics.lookupCompleted("a", true, 100L);
+		metrics.lookupCompleted("b", true, 100L);
+		metrics.lookupCompleted("c", true, 100L);
+		metrics.lookupCompleted("c", false, 100L);
+		assertEquals(new HashSet<>(Arrays.asList("crossbinder.config.a.hits",
+				"crossbinder.config.b.hits")), registry.getCounters((name, metric) ->
+						name.startsWith("crossbinder.config.") && name.endsWith(".hits")).keySet());
+		assertEquals(1L, count("crossbinder.config-untracked.hits"));
+		assertEquals(1L, count("crossbinder.config-untracked.misses"));
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private long count(String name) {
+		return registry.getCounters().get(name).getCount();
+	}
+}
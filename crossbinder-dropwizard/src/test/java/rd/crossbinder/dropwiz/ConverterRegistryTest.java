@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.dropwiz;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.dropwizard.util.Duration;
+import io.dropwizard.util.Size;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class ConverterRegistryTest {
+
+	private ConverterRegistry registry;
+
+	@Before
+	public void setUp() {
+		registry = new ConverterRegistry();
+	}
+
+	@Test
+	public void valuesOfTheTargetTypeAreReturnedAsIs() {
+		String value = "text";
+		assertSame(value, registry.convert(value, String.class));
+		assertEquals(7, registry.convert(7, int.class));
+		assertNull(registry.convert(null, String.class));
+	}
+
+	@Test
+	public void simpleValuesAreConverted() {
+		assertEquals(42, registry.convert(" 42 ", int.class));
+		assertEquals(42L, registry.convert(42, Long.class));
+		assertEquals(Boolean.TRUE, registry.convert("true", boolean.class));
+		assertEquals('x', registry.convert("x", char.class));
+		assertEquals("42", registry.convert(42, String.class));
+		assertNull(registry.convert("forty", Integer.class));
+		assertNull(registry.convert("xy", Character.class));
+	}
+
+	@Test
+	public void enumsAreMatchedIgnoringCase() {
+		assertEquals(TimeUnit.SECONDS, registry.convert(" seconds", TimeUnit.class));
+		assertNull(registry.convert("fortnights", TimeUnit.class));
+	}
+
+	@Test
+	public void dropwizardTypesAreParsed() {
+		assertEquals(Duration.seconds(5), registry.convert("5 seconds", Duration.class));
+		assertEquals(Size.kilobytes(2), registry.convert("2KB", Size.class));
+	}
+
+	@Test
+	public void multipleValuesAreConverted() {
+		assertArrayEquals(new int[] {1, 2, 3}, (int[]) registry.convert("1, 2,3", int[].class));
+		assertArrayEquals(new String[] {"a", "b"},
+				(String[]) registry.convert(Arrays.asList("a", "b"), String[].class));
+		assertEquals(Arrays.asList("a", "b"), registry.convert(new String[] {"a", "b"},
+				List.class));
+		Set<String> expected = new LinkedHashSet<>(Arrays.asList("a", "b"));
+		assertEquals(expected, registry.convert("a,b,a", Set.class));
+		assertNull(registry.convert("1,two", int[].class));
+	}
+
+	@Test
+	public void registeredConverterAppliesToSubtypes() {
+		registry.register(Number.class, Size.class, (value, type) ->
+				Size.bytes(((Number) value).longValue()));
+		assertEquals(Size.bytes(10), registry.convert(10, Size.class));
+		assertEquals(Size.bytes(10), registry.convert(10L, Size.class));
+	}
+
+	@Test
+	public void laterRegistrationReplacesResolvedConverter() {
+		assertNull(registry.convert(10, Duration.class));
+		registry.register(Integer.class, Duration.class, (value, type) ->
+				Duration.seconds((Integer) value));
+		assertEquals(Duration.seconds(10), registry.convert(10, Duration.class));
+		registry.register(Integer.class, Duration.class, (value, type) ->
+				Duration.minutes((Integer) value));
+		assertEquals(Duration.minutes(10), registry.convert(10, Duration.class));
+	}
+
+	@Test
+	public void failingConverterYieldsNull() {
+		registry.register(String.class, Integer.class, (value, type) -> {
+			throw new IllegalStateException("no conversion");
+		});
+		assertNull(registry.convert("1", Integer.class));
+		assertNull(registry.convert("soon", Duration.class));
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.dropwiz;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+
+import rd.crossbinder.web.StartupTimer;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class StartupMetricsTest {
+
+	@Test
+	public void gaugesOnlyForSlowestComponents() {
+		List<Class<?>> types = Arrays.asList(String.class, Integer.class, Long.class, Short.class,
+				Byte.class, Double.class, Float.class, Character.class, Boolean.class, Object.class,
+				Number.class, Math.class);
+		StartupTimer timer = new StartupTimer();
+		for(int i=0; i<types.size(); i++) {
+			timer.recordComponent(types.get(i), i * 1000000L, 1000000L);
+		}
+		timer.endPhase("scan", System.nanoTime());
+		timer.finish();
+
+		MetricRegistry registry = new MetricRegistry();
+		StartupMetrics.register(timer, registry);
+
+		List<String> components = new ArrayList<>();
+		for(String name : registry.getGauges().keySet()) {
+			if(name.startsWith("crossbinder.startup.component.")) {
+				components.add(name);
+			}
+		}
+		assertEquals(2 * StartupTimer.SLOWEST_COUNT, components.size());
+		assertTrue(registry.getGauges().containsKey("crossbinder.startup.total"));
+		assertTrue(registry.getGauges().containsKey("crossbinder.startup.scan"));
+		assertEquals(11L, registry.getGauges()
+				.get("crossbinder.startup.component.java.lang.Math.construct").getValue());
+		assertFalse(registry.getGauges().containsKey(
+				"crossbinder.startup.component.java.lang.String.construct"));
+	}
+
+	@Test
+	public void registeringAgainReplacesGauges() {
+		StartupTimer timer = new StartupTimer();
+		timer.finish();
+		MetricRegistry registry = new MetricRegistry();
+		StartupMetrics.register(timer, registry);
+		StartupMetrics.register(timer, registry);
+		assertEquals(1, registry.getGauges().size());
+	}
+}
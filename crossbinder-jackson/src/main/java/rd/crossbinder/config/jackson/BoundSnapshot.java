@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+/**
+ * A configuration bound up front to its root class, together with its optional path index.
+ *
+ * @author randondiesel
+ *
+ */
+
+final class BoundSnapshot extends ConfigSnapshot {
+
+	private final Object    root;
+	private final PathIndex index;
+
+	BoundSnapshot(Object root, boolean indexed) {
+		this.root = root;
+		index = indexed ? PathIndex.build(root) : null;
+	}
+
+	Object getRoot() {
+		return root;
+	}
+
+	@Override
+	LookupResult lookup(String path) {
+		if(index != null) {
+			return index.lookup(path);
+		}
+		return PathAccessor.lookup(root, path);
+	}
+
+	@Override
+	LookupResult lookup(String path, Class<?> type) {
+		LookupResult result = lookup(path);
+		if(result.isFound() && !type.isInstance(result.getValue())) {
+			return LookupResult.missingAtLastSegment(path);
+		}
+		return result;
+	}
+
+	@Override
+	ConfigSnapshot indexed() {
+		if(index != null) {
+			return this;
+		}
+		return new BoundSnapshot(root, true);
+	}
+}
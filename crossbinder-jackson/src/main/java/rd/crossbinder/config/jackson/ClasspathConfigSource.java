@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A configuration document loaded as a resource from a class loader.
+ *
+ * @author randondiesel
+ *
+ */
+
+public class ClasspathConfigSource implements ConfigSource {
+
+	private final String      resource;
+	private final ClassLoader loader;
+
+	public ClasspathConfigSource(String resource) {
+		this(resource, Thread.currentThread().getContextClassLoader());
+	}
+
+	public ClasspathConfigSource(String resource, ClassLoader loader) {
+		this.resource = resource.startsWith("/") ? resource.substring(1) : resource;
+		this.loader = (loader == null) ? ClasspathConfigSource.class.getClassLoader() : loader;
+	}
+
+	@Override
+	public String getName() {
+		return "classpath:" + resource;
+	}
+
+	@Override
+	public InputStream openStream() throws IOException {
+		InputStream input = loader.getResourceAsStream(resource);
+		if(input == null) {
+			throw new FileNotFoundException(String.format("resource not found: %s", resource));
+		}
+		return input;
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+/**
+ * Keeps a parsed configuration document next to its source file in a binary format, Smile or
+ * CBOR, so that later loads skip tokenizing the source. Each compiled file records the SHA-256
+ * hash of the source it was compiled from. The compiled form is used only while that hash matches
+ * the current source; otherwise the source is parsed and the compiled file rewritten.
+ *
+ * @author randondiesel
+ *
+ */
+
+public final class CompiledConfigCache {
+
+	private static final Logger LOGGER = Logger.getLogger(CompiledConfigCache.class.getName());
+
+	private static final String FIELD_HASH     = "sha256";
+	private static final String FIELD_DOCUMENT = "document";
+
+	private final ConfigFormat binaryFormat;
+
+	public CompiledConfigCache() {
+		this(ConfigFormat.SMILE);
+	}
+
+	public CompiledConfigCache(ConfigFormat binaryFormat) {
+		if(binaryFormat != ConfigFormat.SMILE && binaryFormat != ConfigFormat.CBOR) {
+			throw new IllegalArgumentException(String.format("not a binary format: %s", binaryFormat));
+		}
+		this.binaryFormat = binaryFormat;
+	}
+
+	/**
+	 * @return the path of the compiled file kept for the given source
+	 */
+
+	public Path compiledFileFor(Path source) {
+		String suffix = "." + binaryFormat.name().toLowerCase();
+		return source.resolveSibling(source.getFileName().toString() + suffix);
+	}
+
+	/**
+	 * Loads the given source file as a document tree, from its compiled form if that is current,
+	 * or else by parsing the source and refreshing the compiled form. Failure to write the compiled
+	 * form is logged and does not fail the load.
+	 */
+
+	public JsonNode load(Path source, ConfigFormat sourceFormat) throws IOException {
+		ObjectReader reader = sourceFormat.treeReader();
+		byte[] content = Files.readAllBytes(source);
+		String hash = hash(content);
+		Path compiled = compiledFileFor(source);
+		JsonNode tree = readCompiled(compiled, hash);
+		if(tree != null) {
+			LOGGER.fine(String.format("loaded compiled configuration %s", compiled));
+			return tree;
+		}
+		tree = parse(content, reader);
+		try {
+			writeCompiled(compiled, hash, tree);
+		}
+		catch(IOException exep) {
+			LOGGER.log(Level.WARNING,
+					String.format("unable to write compiled configuration %s", compiled), exep);
+		}
+		return tree;
+	}
+
+	/**
+	 * Parses the given source file and writes its compiled form unconditionally.
+	 *
+	 * @return the path of the compiled file
+	 */
+
+	public Path compile(Path source, ConfigFormat sourceFormat) throws IOException {
+		ObjectReader reader = sourceFormat.treeReader();
+		byte[] content = Files.readAllBytes(source);
+		Path compiled = compiledFileFor(source);
+		writeCompiled(compiled, hash(content), parse(content, reader));
+		return compiled;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private JsonNode parse(byte[] content, ObjectReader reader) throws IOException {
+		JsonNode tree = reader.readTree(new ByteArrayInputStream(content));
+		return (tree == null) ? MissingNode.getInstance() : tree;
+	}
+
+	/*
+	 * The hash is the first field of the compiled document, so a stale file is rejected after
+	 * reading a few bytes, without decoding the document itself.
+	 */
+
+	private JsonNode readCompiled(Path compiled, String hash) {
+		ObjectMapper mapper = binaryFormat.mapper();
+		try(InputStream input = Files.newInputStream(compiled);
+				JsonParser parser = mapper.getFactory().createParser(input)) {
+			if(parser.nextToken() != JsonToken.START_OBJECT
+					|| !FIELD_HASH.equals(parser.nextFieldName())
+					|| !hash.equals(parser.nextTextValue())
+					|| !FIELD_DOCUMENT.equals(parser.nextFieldName())) {
+				LOGGER.fine(String.format("compiled configuration %s is stale", compiled));
+				return null;
+			}
+			parser.nextToken();
+			return mapper.readTree(parser);
+		}
+		catch(NoSuchFileException exep) {
+			return null;
+		}
+		catch(IOException exep) {
+			LOGGER.log(Level.FINE,
+					String.format("unable to read compiled configuration %s", compiled), exep);
+			return null;
+		}
+	}
+
+	private void writeCompiled(Path compiled, String hash, JsonNode tree) throws IOException {
+		ObjectMapper mapper = binaryFormat.mapper();
+		Path temp = Files.createTempFile(compiled.toAbsolutePath().getParent(),
+				compiled.getFileName().toString(), ".tmp");
+		try {
+			try(OutputStream output = Files.newOutputStream(temp);
+					JsonGenerator gen = mapper.getFactory().createGenerator(output)) {
+				gen.writeStartObject();
+				gen.writeStringField(FIELD_HASH, hash);
+				gen.writeFieldName(FIELD_DOCUMENT);
+				mapper.writeTree(gen, tree);
+				gen.writeEndObject();
+			}
+			Files.move(temp, compiled, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private static String hash(byte[] content) {
+		MessageDigest digest = null;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch(NoSuchAlgorithmException exep) {
+			throw new IllegalStateException(exep);
+		}
+		byte[] bytes = digest.digest(content);
+		StringBuilder buffer = new StringBuilder(bytes.length * 2);
+		for(byte b : bytes) {
+			buffer.append(Character.forDigit((b >> 4) & 0xF, 16));
+			buffer.append(Character.forDigit(b & 0xF, 16));
+		}
+		return buffer.toString();
+	}
+}
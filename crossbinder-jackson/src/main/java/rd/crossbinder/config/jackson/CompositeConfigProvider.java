@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import rd.crossbinder.hod.ConfigurationProvider;
+
+/**
+ * A configuration provider made of several layers, such as environment variables and system
+ * properties over a configuration file. Layers are given in order of precedence: a path is owned
+ * by the first layer that contains it, and its value is always taken from that layer.
+ * <p>
+ * The owner of a path is found on its first lookup by probing the layers in turn, and recorded
+ * in an index, so that later lookups go straight to the owning layer. Paths that no layer
+ * contains are not recorded, so that probes of arbitrary paths do not grow the index, and are
+ * probed again on every lookup. If the content of a layer changes, for example because its
+ * configuration was reloaded, call {@link #clearOwners()}.
+ *
+ * @author randondiesel
+ *
+ */
+
+public class CompositeConfigProvider implements ConfigurationProvider {
+
+	private static final int NO_OWNER = -1;
+
+	private final List<ConfigurationProvider>    layers;
+	private final ConcurrentMap<String, Integer> owners;
+
+	public CompositeConfigProvider(ConfigurationProvider... layers) {
+		this(Arrays.asList(layers));
+	}
+
+	/**
+	 * @param layers the layers of this provider, highest precedence first
+	 */
+
+	public CompositeConfigProvider(List<? extends ConfigurationProvider> layers) {
+		if(layers.isEmpty()) {
+			throw new IllegalArgumentException("no configuration layers given");
+		}
+		this.layers = Collections.unmodifiableList(new ArrayList<>(layers));
+		owners = new ConcurrentHashMap<>();
+	}
+
+	public List<ConfigurationProvider> getLayers() {
+		return layers;
+	}
+
+	/**
+	 * @return the layer that owns the given path, or <code>null</code> if no layer contains it
+	 */
+
+	public ConfigurationProvider getOwner(String path) {
+		int owner = ownerOf(path);
+		return (owner == NO_OWNER) ? null : layers.get(owner);
+	}
+
+	/**
+	 * Forgets the recorded owner of every path, so that owners are found again on the next lookup.
+	 */
+
+	public void clearOwners() {
+		owners.clear();
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Methods of interface ConfigurationProvider
+
+	@Override
+	public boolean contains(String path) {
+		return (ownerOf(path) != NO_OWNER);
+	}
+
+	@Override
+	public Object getValue(String path, Class<?> type) {
+		int owner = ownerOf(path);
+		if(owner == NO_OWNER) {
+			return null;
+		}
+		return layers.get(owner).getValue(path, type);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private int ownerOf(String path) {
+		Integer owner = owners.get(path);
+		if(owner != null) {
+			return owner;
+		}
+		for(int i=0; i<layers.size(); i++) {
+			if(layers.get(i).contains(path)) {
+				owners.putIfAbsent(path, i);
+				return i;
+			}
+		}
+		return NO_OWNER;
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command line entry point that precompiles configuration files into their binary cache form,
+ * for example as part of a build. Usage:
+ *
+ * <pre>
+ * java rd.crossbinder.config.jackson.ConfigCompiler [--smile | --cbor] file...
+ * </pre>
+ *
+ * @author randondiesel
+ *
+ */
+
+public final class ConfigCompiler {
+
+	private ConfigCompiler() {
+		//NOOP
+	}
+
+	public static void main(String[] args) throws IOException {
+		ConfigFormat binaryFormat = ConfigFormat.SMILE;
+		int count = 0;
+		for(String arg : args) {
+			if(arg.equals("--smile")) {
+				binaryFormat = ConfigFormat.SMILE;
+			}
+			else if(arg.equals("--cbor")) {
+				binaryFormat = ConfigFormat.CBOR;
+			}
+			else {
+				Path source = Paths.get(arg);
+				Path compiled = new CompiledConfigCache(binaryFormat).compile(source,
+						JacksonConfigProvider.formatOf(source));
+				System.out.println(String.format("compiled %s to %s", source, compiled));
+				count++;
+			}
+		}
+		if(count == 0) {
+			System.err.println("usage: ConfigCompiler [--smile | --cbor] file...");
+			System.exit(1);
+		}
+	}
+}
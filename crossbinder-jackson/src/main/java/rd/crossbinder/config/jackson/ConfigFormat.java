@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.xml.JacksonXmlModule;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * Syntax of a configuration document.
+ *
+ * @author randondiesel
+ *
+ */
+
+public enum ConfigFormat {
+
+	YAML(".yaml", ".yml") {
+		@Override
+		ObjectMapper createMapper() {
+			return new ObjectMapper(new YAMLFactory());
+		}
+	},
+
+	JSON(".json") {
+		@Override
+		ObjectMapper createMapper() {
+			return new ObjectMapper(new JsonFactory());
+		}
+	},
+
+	SMILE(".smile") {
+		@Override
+		ObjectMapper createMapper() {
+			return SmileMappers.create();
+		}
+	},
+
+	CBOR(".cbor") {
+		@Override
+		ObjectMapper createMapper() {
+			return CborMappers.create();
+		}
+	},
+
+	/**
+	 * XML read through a streaming StAX parser. The name of the root element is ignored. A document
+	 * is bound to a root class, and a collection property is written as the property element
+	 * repeated once per item, without a wrapper element. An XML document cannot be kept as a tree,
+	 * since a tree retains only the last of several repeated elements: lazy binding, layering, the
+	 * compiled cache and {@link ConfigProfiles} reject this format with an
+	 * <code>IllegalArgumentException</code>.
+	 */
+
+	XML(".xml") {
+		@Override
+		ObjectMapper createMapper() {
+			return XmlMappers.create();
+		}
+	};
+
+	private final String[] extensions;
+
+	/*
+	 * Mappers are created on first use, so that a format whose dataformat module is not on the
+	 * classpath only fails when it is actually used. For the same reason, optional dataformat
+	 * classes are only referenced from the nested factory classes below.
+	 */
+
+	private volatile ObjectMapper mapper;
+	private volatile ObjectReader reader;
+	private volatile ObjectReader dedupReader;
+
+	private ConfigFormat(String... extensions) {
+		this.extensions = extensions;
+	}
+
+	/**
+	 * @return the format matching the extension of the given file name, or <code>null</code> if the
+	 * extension is not recognized
+	 */
+
+	public static ConfigFormat forFileName(String fileName) {
+		for(ConfigFormat format : values()) {
+			if(StringUtils.endsWithAny(StringUtils.lowerCase(fileName), format.extensions)) {
+				return format;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return a reader for this format that is shared by all callers. Readers are immutable and safe
+	 * to use from several threads at once.
+	 */
+
+	public ObjectReader reader() {
+		ObjectReader result = reader;
+		if(result == null) {
+			synchronized(this) {
+				result = reader;
+				if(result == null) {
+					result = mapper().reader();
+					reader = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the shared reader of this format, for reading documents as trees
+	 * @throws IllegalArgumentException if a document of this format cannot be read as a tree
+	 * without losing content
+	 */
+
+	ObjectReader treeReader() {
+		if(this == XML) {
+			throw new IllegalArgumentException(
+					"XML configuration cannot be read as a tree, repeated elements would be lost");
+		}
+		return reader();
+	}
+
+	/**
+	 * @return a shared reader of a separate mapper for this format that deduplicates scalar values
+	 * while binding. See {@link ValueDeduplicator}.
+	 */
+
+	ObjectReader deduplicatingReader() {
+		ObjectReader result = dedupReader;
+		if(result == null) {
+			synchronized(this) {
+				result = dedupReader;
+				if(result == null) {
+					result = createMapper().registerModule(ValueDeduplicator.MODULE).reader();
+					dedupReader = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	ObjectMapper mapper() {
+		ObjectMapper result = mapper;
+		if(result == null) {
+			synchronized(this) {
+				result = mapper;
+				if(result == null) {
+					result = createMapper();
+					mapper = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	abstract ObjectMapper createMapper();
+
+	////////////////////////////////////////////////////////////////////////////
+	// Factories for optional dataformats
+
+	private static final class SmileMappers {
+
+		static ObjectMapper create() {
+			return new ObjectMapper(new SmileFactory());
+		}
+	}
+
+	private static final class CborMappers {
+
+		static ObjectMapper create() {
+			return new ObjectMapper(new CBORFactory());
+		}
+	}
+
+	private static final class XmlMappers {
+
+		static ObjectMapper create() {
+			JacksonXmlModule module = new JacksonXmlModule();
+			module.setDefaultUseWrapper(false);
+			return new XmlMapper(module);
+		}
+	}
+}
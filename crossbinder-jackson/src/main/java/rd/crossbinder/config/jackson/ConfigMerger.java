@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Deep-merges configuration document trees. Objects are merged property by property. Any other
+ * value in a later layer, arrays and explicit nulls included, replaces the value of the earlier
+ * layer as a whole.
+ *
+ * @author randondiesel
+ *
+ */
+
+final class ConfigMerger {
+
+	private ConfigMerger() {
+		//NOOP
+	}
+
+	/**
+	 * Merges the given layers in order, so that each layer takes precedence over all layers before
+	 * it. The first layer is modified in place and returned.
+	 */
+
+	static JsonNode merge(List<JsonNode> layers) {
+		JsonNode result = MissingNode.getInstance();
+		for(JsonNode layer : layers) {
+			result = merge(result, layer);
+		}
+		return result;
+	}
+
+	static JsonNode merge(JsonNode base, JsonNode overlay) {
+		if(overlay == null || overlay.isMissingNode()) {
+			return base;
+		}
+		if(!base.isObject() || !overlay.isObject()) {
+			return overlay;
+		}
+		ObjectNode target = (ObjectNode) base;
+		Iterator<Map.Entry<String, JsonNode>> fields = overlay.fields();
+		while(fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			JsonNode current = target.get(field.getKey());
+			if(current == null) {
+				target.set(field.getKey(), field.getValue());
+			}
+			else {
+				target.set(field.getKey(), merge(current, field.getValue()));
+			}
+		}
+		return target;
+	}
+
+	/**
+	 * Merges the overlay into the base without modifying either tree. Only the objects on the path
+	 * to a changed value are copied; every other subtree of the result is the very node instance of
+	 * the base. An overlay value equal to the base value keeps the base node, and if nothing
+	 * changes, the base itself is returned.
+	 */
+
+	static JsonNode mergeShared(JsonNode base, JsonNode overlay) {
+		if(overlay == null || overlay.isMissingNode()) {
+			return base;
+		}
+		if(!base.isObject() || !overlay.isObject()) {
+			return overlay.equals(base) ? base : overlay;
+		}
+		ObjectNode source = (ObjectNode) base;
+		ObjectNode target = null;
+		Iterator<Map.Entry<String, JsonNode>> fields = overlay.fields();
+		while(fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			JsonNode current = source.get(field.getKey());
+			JsonNode merged = field.getValue();
+			if(current != null) {
+				merged = mergeShared(current, merged);
+			}
+			if(merged != current) {
+				if(target == null) {
+					target = source.objectNode();
+					target.setAll(source);
+				}
+				target.set(field.getKey(), merged);
+			}
+		}
+		return (target == null) ? base : target;
+	}
+}
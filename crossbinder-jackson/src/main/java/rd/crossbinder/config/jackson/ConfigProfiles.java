@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+/**
+ * A base configuration together with named profiles, each defined by an overlay document that is
+ * merged over the base or over another profile. A profile shares every subtree it does not change
+ * with the configuration it is derived from: only the objects on the path to a changed value are
+ * copied, so the memory held by a profile grows with its differences rather than with the size of
+ * the configuration. Values bound from a shared subtree are shared as well, and must therefore be
+ * treated as read-only.
+ * <p>
+ * Each profile is exposed as a {@link JacksonConfigProvider} that binds lazily, as with
+ * {@link JacksonConfigProvider#bindLazily()}. Redefining a profile publishes the new configuration
+ * to the existing provider of the profile. Profiles derived from it are not redefined. XML
+ * documents are rejected, as documented for {@link ConfigFormat#XML}.
+ *
+ * @author randondiesel
+ *
+ */
+
+public class ConfigProfiles {
+
+	private final ObjectReader   reader;
+	private final SharedBindings bindings;
+	private final JsonNode       base;
+
+	private final JacksonConfigProvider baseProvider;
+
+	private final Map<String, JsonNode>              trees;
+	private final Map<String, JacksonConfigProvider> providers;
+
+	public ConfigProfiles(ConfigSource base) throws IOException {
+		this(base.getFormat().treeReader(), readTree(base));
+	}
+
+	public ConfigProfiles(ConfigFormat format, InputStream base) throws IOException {
+		this(format.treeReader(), format.treeReader().readTree(base));
+	}
+
+	private ConfigProfiles(ObjectReader reader, JsonNode base) {
+		this.reader = reader;
+		this.base = (base == null) ? MissingNode.getInstance() : base;
+		bindings = new SharedBindings();
+		baseProvider = providerOf(this.base);
+		trees = new LinkedHashMap<>();
+		providers = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Defines a profile as the given overlay merged over the base configuration.
+	 */
+
+	public ConfigProfiles addProfile(String name, ConfigSource overlay) throws IOException {
+		return addProfile(name, null, overlay);
+	}
+
+	/**
+	 * Defines a profile as the given overlay merged over the named parent profile, or over the base
+	 * configuration if the parent is <code>null</code>.
+	 */
+
+	public ConfigProfiles addProfile(String name, String parent, ConfigSource overlay)
+			throws IOException {
+		try(InputStream input = overlay.openStream()) {
+			return addProfile(name, parent, overlay.getFormat(), input);
+		}
+	}
+
+	public synchronized ConfigProfiles addProfile(String name, String parent, ConfigFormat format,
+			InputStream overlay) throws IOException {
+		JsonNode parentTree = base;
+		if(parent != null) {
+			parentTree = trees.get(parent);
+			if(parentTree == null) {
+				throw new IllegalArgumentException(String.format("unknown profile: %s", parent));
+			}
+		}
+		JsonNode tree = ConfigMerger.mergeShared(parentTree, format.treeReader().readTree(overlay));
+		trees.put(name, tree);
+		JacksonConfigProvider provider = providers.get(name);
+		if(provider == null) {
+			providers.put(name, providerOf(tree));
+		}
+		else {
+			provider.publish(new TreeSnapshot(tree, reader, bindings));
+		}
+		return this;
+	}
+
+	/**
+	 * @return the names of all defined profiles, in the order they were first defined
+	 */
+
+	public synchronized Set<String> getProfileNames() {
+		return Collections.unmodifiableSet(new LinkedHashMap<>(trees).keySet());
+	}
+
+	/**
+	 * @return a provider of the base configuration, without any profile applied
+	 */
+
+	public JacksonConfigProvider getBaseProvider() {
+		return baseProvider;
+	}
+
+	/**
+	 * @return a provider of the named profile
+	 * @throws IllegalArgumentException if no such profile is defined
+	 */
+
+	public synchronized JacksonConfigProvider getProvider(String name) {
+		JacksonConfigProvider result = providers.get(name);
+		if(result == null) {
+			throw new IllegalArgumentException(String.format("unknown profile: %s", name));
+		}
+		return result;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private JacksonConfigProvider providerOf(JsonNode tree) {
+		JacksonConfigProvider result = new JacksonConfigProvider().bindLazily();
+		result.publish(new TreeSnapshot(tree, reader, bindings));
+		return result;
+	}
+
+	private static JsonNode readTree(ConfigSource source) throws IOException {
+		try(InputStream input = source.openStream()) {
+			return source.getFormat().treeReader().readTree(input);
+		}
+	}
+}
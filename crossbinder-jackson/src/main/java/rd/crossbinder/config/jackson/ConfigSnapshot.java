@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An immutable view of one loaded configuration. A provider replaces its snapshot as a whole
+ * whenever the configuration is reloaded.
+ *
+ * @author randondiesel
+ *
+ */
+
+abstract class ConfigSnapshot {
+
+	private final ConcurrentMap<String, ScalarValue> scalars = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the outcome of looking up the value at the given path in its native form
+	 */
+
+	abstract LookupResult lookup(String path);
+
+	/**
+	 * @return the outcome of looking up the value at the given path as an instance of the given
+	 * type. A value that is not of that type is reported as missing at the last segment.
+	 */
+
+	abstract LookupResult lookup(String path, Class<?> type);
+
+	/**
+	 * @return the value at the given path in its native form, or <code>null</code> if there is no
+	 * value
+	 */
+
+	final Object get(String path) {
+		return lookup(path).getValue();
+	}
+
+	/**
+	 * @return a snapshot with the same content that answers lookups from a path index, if the
+	 * snapshot supports one
+	 */
+
+	ConfigSnapshot indexed() {
+		return this;
+	}
+
+	/**
+	 * @return the value at the given path in primitive form. The value is converted on first use
+	 * and kept for the lifetime of this snapshot. Paths without a value are not kept, since the
+	 * paths requested are not bounded by the configuration.
+	 */
+
+	final ScalarValue getScalar(String path) {
+		ScalarValue result = scalars.get(path);
+		if(result == null) {
+			LookupResult found = lookup(path);
+			result = ScalarValue.of(found.getValue());
+			if(found.isFound()) {
+				ScalarValue prev = scalars.putIfAbsent(path, result);
+				if(prev != null) {
+					result = prev;
+				}
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A location from which a configuration document can be read.
+ *
+ * @author randondiesel
+ *
+ */
+
+public interface ConfigSource {
+
+	/**
+	 * @return a descriptive name of the source, ending in the extension of the document format
+	 */
+
+	String getName();
+
+	/**
+	 * @return a new stream over the content of the source. The caller is responsible for closing it.
+	 */
+
+	InputStream openStream() throws IOException;
+
+	/**
+	 * @return the format of the document, derived from the extension of the name by default
+	 */
+
+	default ConfigFormat getFormat() {
+		ConfigFormat format = ConfigFormat.forFileName(getName());
+		if(format == null) {
+			throw new IllegalArgumentException(
+					String.format("unknown configuration format: %s", getName()));
+		}
+		return format;
+	}
+}
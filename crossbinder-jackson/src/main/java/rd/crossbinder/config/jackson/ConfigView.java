@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+/**
+ * Lookups on a configuration object that was bound outside this module, such as a Dropwizard
+ * configuration. Paths are resolved the same way as in {@link JacksonConfigProvider}, optionally
+ * through an index of all paths built up front, and primitive values are parsed once and kept for
+ * the lifetime of the view.
+ *
+ * @author randondiesel
+ *
+ */
+
+public final class ConfigView {
+
+	private final BoundSnapshot snapshot;
+
+	private ConfigView(BoundSnapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * @param indexed if <code>true</code>, all configuration paths are indexed up front so that
+	 * lookups no longer walk the configuration object graph
+	 */
+
+	public static ConfigView of(Object root, boolean indexed) {
+		return new ConfigView(new BoundSnapshot(root, indexed));
+	}
+
+	/**
+	 * @return the value at the given path, or the first segment of the path that has no value
+	 */
+
+	public LookupResult lookup(String path) {
+		return snapshot.lookup(path);
+	}
+
+	public int getInt(String path, int defaultValue) {
+		return snapshot.getScalar(path).intValue(defaultValue);
+	}
+
+	public long getLong(String path, long defaultValue) {
+		return snapshot.getScalar(path).longValue(defaultValue);
+	}
+
+	public double getDouble(String path, double defaultValue) {
+		return snapshot.getScalar(path).doubleValue(defaultValue);
+	}
+
+	public boolean getBoolean(String path, boolean defaultValue) {
+		return snapshot.getScalar(path).booleanValue(defaultValue);
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches a single configuration file and runs a reload action on a background thread whenever
+ * the file changes. Bursts of change events, as produced by editors that write a file in several
+ * steps, are collapsed into a single reload once the file has been quiet for the debounce period.
+ *
+ * @author randondiesel
+ *
+ */
+
+class ConfigWatcher implements Closeable {
+
+	private static final Logger LOGGER = Logger.getLogger(ConfigWatcher.class.getName());
+
+	private final Path         file;
+	private final long         debounceMillis;
+	private final Runnable     action;
+	private final WatchService watchService;
+	private final Thread       thread;
+
+	ConfigWatcher(Path file, long debounceMillis, Runnable action) throws IOException {
+		this.file = file.toAbsolutePath();
+		this.debounceMillis = debounceMillis;
+		this.action = action;
+		watchService = this.file.getFileSystem().newWatchService();
+		this.file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+		thread = new Thread(this::watchLoop, "crossbinder-config-watcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public void close() throws IOException {
+		watchService.close();
+		thread.interrupt();
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private void watchLoop() {
+		LOGGER.fine(String.format("watching configuration file %s", file));
+		try {
+			while(true) {
+				WatchKey key = watchService.take();
+				boolean changed = isFileChanged(key);
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+				while(changed) {
+					long wait = deadline - System.nanoTime();
+					key = (wait > 0) ? watchService.poll(wait, TimeUnit.NANOSECONDS) : null;
+					if(key == null) {
+						break;
+					}
+					if(isFileChanged(key)) {
+						deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+					}
+				}
+				if(changed) {
+					runAction();
+				}
+			}
+		}
+		catch(InterruptedException | ClosedWatchServiceException exep) {
+			LOGGER.fine(String.format("stopped watching configuration file %s", file));
+		}
+	}
+
+	private boolean isFileChanged(WatchKey key) {
+		boolean result = isChange(file.getFileName(), key.pollEvents());
+		key.reset();
+		return result;
+	}
+
+	/**
+	 * @return whether the given events report a change of the named file. Lost events count as a
+	 * change, since any of them may have been one.
+	 */
+
+	static boolean isChange(Path fileName, List<WatchEvent<?>> events) {
+		for(WatchEvent<?> event : events) {
+			if(event.kind() == OVERFLOW || fileName.equals(event.context())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void runAction() {
+		try {
+			action.run();
+		}
+		catch(RuntimeException exep) {
+			LOGGER.log(Level.WARNING, String.format("error reloading configuration file %s", file), exep);
+		}
+	}
+}
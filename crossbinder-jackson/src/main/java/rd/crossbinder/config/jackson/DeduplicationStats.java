@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+/**
+ * Outcome of deduplicating the scalar values of a loaded configuration. Sizes are estimated for a
+ * 64-bit JVM with compressed object references.
+ *
+ * @author randondiesel
+ *
+ */
+
+public final class DeduplicationStats {
+
+	private final long valueCount;
+	private final long duplicateCount;
+	private final long bytesSaved;
+
+	DeduplicationStats(long valueCount, long duplicateCount, long bytesSaved) {
+		this.valueCount = valueCount;
+		this.duplicateCount = duplicateCount;
+		this.bytesSaved = bytesSaved;
+	}
+
+	/**
+	 * @return the number of scalar values read
+	 */
+
+	public long getValueCount() {
+		return valueCount;
+	}
+
+	/**
+	 * @return the number of values replaced by an equal value read earlier
+	 */
+
+	public long getDuplicateCount() {
+		return duplicateCount;
+	}
+
+	/**
+	 * @return the estimated number of heap bytes no longer retained because of replaced values
+	 */
+
+	public long getBytesSaved() {
+		return bytesSaved;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d of %d values deduplicated, about %d bytes saved", duplicateCount,
+				valueCount, bytesSaved);
+	}
+}
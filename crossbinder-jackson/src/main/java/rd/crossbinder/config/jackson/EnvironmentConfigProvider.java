@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.util.Map;
+
+/**
+ * Provides configuration values from environment variables. A path maps to a variable name by
+ * upper-casing it and replacing every character other than a letter or digit with an underscore,
+ * after an optional prefix. With the prefix <code>APP_</code>, the path
+ * <code>server.http-port</code> is read from <code>APP_SERVER_HTTP_PORT</code>. Only leaf values
+ * are provided.
+ *
+ * @author randondiesel
+ *
+ */
+
+public class EnvironmentConfigProvider extends TextConfigProvider {
+
+	private final String prefix;
+
+	public EnvironmentConfigProvider() {
+		this("");
+	}
+
+	public EnvironmentConfigProvider(String prefix) {
+		this(prefix, System.getenv());
+	}
+
+	/**
+	 * @param prefix the prefix of all variable names
+	 * @param variables the variables to provide values from, such as a copy of the process
+	 * environment
+	 */
+
+	public EnvironmentConfigProvider(String prefix, Map<String, String> variables) {
+		super(variables);
+		this.prefix = prefix;
+	}
+
+	@Override
+	String nameOf(String path) {
+		StringBuilder buffer = new StringBuilder(prefix.length() + path.length());
+		buffer.append(prefix);
+		for(int i=0; i<path.length(); i++) {
+			char ch = path.charAt(i);
+			buffer.append(Character.isLetterOrDigit(ch) ? Character.toUpperCase(ch) : '_');
+		}
+		return buffer.toString();
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+/**
+ * Receives configuration lookups, injections and component registrations, for example to emit
+ * them as profiling events. An implementation is found through <code>ServiceLoader</code>; see
+ * {@link EventTracers}. Each activity is reported through a pair of calls: the begin method
+ * returns a token, or <code>null</code> if the activity is not traced at that moment, and the end
+ * method is only called with a token that is not <code>null</code>. Implementations must be safe
+ * to call from several threads at once.
+ *
+ * @author randondiesel
+ *
+ */
+
+public interface EventTracer {
+
+	Object beginLookup();
+
+	/**
+	 * @param provider the class of the configuration provider that served the lookup
+	 */
+
+	void endLookup(Object token, Class<?> provider, String path, boolean found);
+
+	Object beginInjection();
+
+	void endInjection(Object token, Class<?> targetType);
+
+	Object beginRegistration();
+
+	/**
+	 * @param kind the kind of component, such as <code>resource</code>, <code>servlet</code> or
+	 * <code>filter</code>
+	 */
+
+	void endRegistration(Object token, String kind, Class<?> componentType);
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import rd.crossbinder.hod.Injector;
+
+/**
+ * Holds the {@link EventTracer} in use, which is the first implementation found through
+ * <code>ServiceLoader</code> when this class is initialized. Without an implementation, a tracer
+ * that traces nothing is used, whose calls the JIT compiler reduces to nothing when they are made
+ * through a <code>static final</code> field.
+ *
+ * @author randondiesel
+ *
+ */
+
+public final class EventTracers {
+
+	private static final Logger LOGGER = Logger.getLogger(EventTracers.class.getName());
+
+	private static final EventTracer NONE   = new NoTracer();
+	private static final EventTracer TRACER = load();
+
+	private EventTracers() {
+		//NOOP
+	}
+
+	public static EventTracer get() {
+		return TRACER;
+	}
+
+	/**
+	 * @return an injector that reports every injection to the tracer in use, or the given injector
+	 * itself if there is no tracer
+	 */
+
+	public static Injector trace(Injector injector) {
+		if(TRACER == NONE) {
+			return injector;
+		}
+		return target -> {
+			Object token = TRACER.beginInjection();
+			try {
+				injector.inject(target);
+			}
+			finally {
+				if(token != null) {
+					TRACER.endInjection(token, target.getClass());
+				}
+			}
+		};
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static EventTracer load() {
+		try {
+			ServiceLoader<EventTracer> loader =
+					ServiceLoader.load(EventTracer.class, EventTracers.class.getClassLoader());
+			Iterator<EventTracer> tracers = loader.iterator();
+			if(tracers.hasNext()) {
+				EventTracer result = tracers.next();
+				LOGGER.fine(String.format("tracing events with %s", result.getClass().getName()));
+				return result;
+			}
+		}
+		catch(ServiceConfigurationError exep) {
+			LOGGER.log(Level.WARNING, "unable to load event tracer, events are not traced", exep);
+		}
+		return NONE;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner class for the tracer that traces nothing
+
+	private static final class NoTracer implements EventTracer {
+
+		@Override
+		public Object beginLookup() {
+			return null;
+		}
+
+		@Override
+		public void endLookup(Object token, Class<?> provider, String path, boolean found) {
+			//NOOP
+		}
+
+		@Override
+		public Object beginInjection() {
+			return null;
+		}
+
+		@Override
+		public void endInjection(Object token, Class<?> targetType) {
+			//NOOP
+		}
+
+		@Override
+		public Object beginRegistration() {
+			return null;
+		}
+
+		@Override
+		public void endRegistration(Object token, String kind, Class<?> componentType) {
+			//NOOP
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.util.function.BiFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Locates the path accessors generated at compile time for classes annotated with
+ * <code>@ConfigRoot</code>. An accessor is looked up once per class, on the class itself and then on
+ * its superclasses.
+ *
+ * @author randondiesel
+ *
+ */
+
+final class GeneratedAccessors {
+
+	private static final Logger LOGGER = Logger.getLogger(GeneratedAccessors.class.getName());
+
+	private static final String SUFFIX = "_ConfigAccessor";
+
+	private static final ClassValue<BiFunction<Object, String, Object>> ACCESSORS =
+			new ClassValue<BiFunction<Object, String, Object>>() {
+
+		@Override
+		protected BiFunction<Object, String, Object> computeValue(Class<?> type) {
+			for(Class<?> cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+				BiFunction<Object, String, Object> accessor = load(cls);
+				if(accessor != null) {
+					return accessor;
+				}
+			}
+			return null;
+		}
+	};
+
+	private GeneratedAccessors() {
+		//NOOP
+	}
+
+	/**
+	 * @return the generated accessor for the given root class, or <code>null</code> if there is
+	 * none. The accessor returns itself for paths it does not know.
+	 */
+
+	static BiFunction<Object, String, Object> find(Class<?> rootCls) {
+		return ACCESSORS.get(rootCls);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	@SuppressWarnings("unchecked")
+	private static BiFunction<Object, String, Object> load(Class<?> cls) {
+		if(cls.isArray() || cls.isPrimitive() || cls.getName().startsWith("java.")) {
+			return null;
+		}
+		String accessorName = cls.getName().replace('$', '_') + SUFFIX;
+		try {
+			Class<?> accessorCls = Class.forName(accessorName, true, cls.getClassLoader());
+			if(!BiFunction.class.isAssignableFrom(accessorCls)) {
+				return null;
+			}
+			LOGGER.fine(String.format("using generated configuration accessor %s", accessorName));
+			return (BiFunction<Object, String, Object>) accessorCls.getConstructor().newInstance();
+		}
+		catch(ClassNotFoundException exep) {
+			return null;
+		}
+		catch(Exception | LinkageError exep) {
+			LOGGER.log(Level.WARNING, String.format("unable to use configuration accessor %s",
+					accessorName), exep);
+			return null;
+		}
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import rd.crossbinder.hod.ConfigurationProvider;
+import rd.crossbinder.hod.Injector;
+
+/**
+ * Records which configuration values each injected instance consumed, so that only the affected
+ * instances are injected again when the configuration changes. The tracker wraps the provider
+ * that crossbinder is configured with, and injections are routed through {@link #track(Injector)}.
+ * While an instance is being injected, every lookup made on the current thread is recorded
+ * against it, together with the value returned.
+ * <p>
+ * {@link #refresh()} repeats each recorded lookup, once per distinct path and type, and injects
+ * again every instance for which a value differs. Values are compared with
+ * <code>equals</code>, so an instance that consumed a whole configuration object without value
+ * equality is refreshed on every change. Instances are held weakly.
+ *
+ * @author randondiesel
+ *
+ */
+
+public class InjectionTracker implements ConfigurationProvider {
+
+	private static final Logger LOGGER = Logger.getLogger(InjectionTracker.class.getName());
+
+	private final ConfigurationProvider             delegate;
+	private final ThreadLocal<Map<ReadKey, Object>> current;
+	private final List<Tracked>                     tracked;
+
+	public InjectionTracker(ConfigurationProvider delegate) {
+		this.delegate = delegate;
+		current = new ThreadLocal<>();
+		tracked = new ArrayList<>();
+	}
+
+	/**
+	 * @return an injector that delegates to the given injector and tracks every instance injected
+	 * through it
+	 */
+
+	public Injector track(Injector injector) {
+		return target -> inject(target, injector);
+	}
+
+	public void inject(Object target, Injector injector) {
+		Map<ReadKey, Object> reads = injectRecording(target, injector);
+		synchronized(tracked) {
+			tracked.add(new Tracked(target, injector, reads));
+		}
+	}
+
+	/**
+	 * Injects again every tracked instance that consumed a configuration value that has changed
+	 * since it was last injected. Call this after the configuration of the wrapped provider has
+	 * changed.
+	 *
+	 * @return the number of instances injected again
+	 */
+
+	public synchronized int refresh() {
+		List<Tracked> candidates;
+		synchronized(tracked) {
+			tracked.removeIf(entry -> entry.get() == null);
+			candidates = new ArrayList<>(tracked);
+		}
+
+		Map<ReadKey, Object> latest = new HashMap<>();
+		int count = 0;
+		for(Tracked entry : candidates) {
+			Object target = entry.get();
+			if(target == null || !entry.isAffected(latest)) {
+				continue;
+			}
+			LOGGER.fine(String.format("configuration changed, injecting %s again",
+					target.getClass().getName()));
+			try {
+				entry.reads = injectRecording(target, entry.injector);
+				count++;
+			}
+			catch(RuntimeException exep) {
+				LOGGER.log(Level.WARNING, String.format("error injecting %s again",
+						target.getClass().getName()), exep);
+			}
+		}
+		LOGGER.info(String.format("configuration changed, %d of %d instances injected again", count,
+				candidates.size()));
+		return count;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Methods of interface ConfigurationProvider
+
+	@Override
+	public boolean contains(String path) {
+		boolean result = delegate.contains(path);
+		Map<ReadKey, Object> reads = current.get();
+		if(reads != null) {
+			reads.put(new ReadKey(path, null), result);
+		}
+		return result;
+	}
+
+	@Override
+	public Object getValue(String path, Class<?> type) {
+		Object result = delegate.getValue(path, type);
+		Map<ReadKey, Object> reads = current.get();
+		if(reads != null) {
+			reads.put(new ReadKey(path, type), result);
+		}
+		return result;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private Map<ReadKey, Object> injectRecording(Object target, Injector injector) {
+		Map<ReadKey, Object> outer = current.get();
+		Map<ReadKey, Object> reads = new LinkedHashMap<>();
+		current.set(reads);
+		try {
+			injector.inject(target);
+		}
+		finally {
+			if(outer == null) {
+				current.remove();
+			}
+			else {
+				current.set(outer);
+			}
+		}
+		return reads;
+	}
+
+	private Object read(ReadKey key) {
+		if(key.type == null) {
+			return delegate.contains(key.path);
+		}
+		return delegate.getValue(key.path, key.type);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner class for one lookup made during injection
+
+	private static final class ReadKey {
+
+		private final String   path;
+		private final Class<?> type;
+
+		ReadKey(String path, Class<?> type) {
+			this.path = path;
+			this.type = type;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof ReadKey)) {
+				return false;
+			}
+			ReadKey other = (ReadKey) obj;
+			return path.equals(other.path) && type == other.type;
+		}
+
+		@Override
+		public int hashCode() {
+			return path.hashCode() * 31 + Objects.hashCode(type);
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner class for an injected instance
+
+	private final class Tracked extends WeakReference<Object> {
+
+		private final Injector                injector;
+		private volatile Map<ReadKey, Object> reads;
+
+		Tracked(Object target, Injector injector, Map<ReadKey, Object> reads) {
+			super(target);
+			this.injector = injector;
+			this.reads = reads;
+		}
+
+		/*
+		 * The latest values are shared between all instances in one refresh, so a path consumed
+		 * by many instances is only looked up once.
+		 */
+
+		boolean isAffected(Map<ReadKey, Object> latest) {
+			for(Map.Entry<ReadKey, Object> entry : reads.entrySet()) {
+				ReadKey key = entry.getKey();
+				Object value = latest.containsKey(key) ? latest.get(key) : read(key);
+				latest.put(key, value);
+				if(!Objects.deepEquals(entry.getValue(), value)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
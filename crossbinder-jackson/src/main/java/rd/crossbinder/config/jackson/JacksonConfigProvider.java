@@ -14,22 +14,25 @@
 
 package rd.crossbinder.config.jackson;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.apache.commons.lang3.StringUtils;
-
-import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
-
-import rd.crossbinder.hod.ConfigurationProvider;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 /**
  *
@@ -37,176 +40,539 @@ import rd.crossbinder.hod.ConfigurationProvider;
  *
  */
 
-public class JacksonConfigProvider implements ConfigurationProvider {
+public class JacksonConfigProvider extends LookupConfigProvider {
 
 	private static final Logger LOGGER = Logger.getLogger(JacksonConfigProvider.class.getName());
 
-	private Object configRoot;
+	private static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+
+	private static final LoadAction UNREPEATABLE = () -> {
+		throw new IllegalStateException("configuration cannot be read again");
+	};
+
+	/*
+	 * All state derived from a loaded configuration lives in one immutable snapshot, so that a
+	 * reload is published to readers with a single volatile write.
+	 */
+
+	private volatile ConfigSnapshot snapshot;
+	private boolean                 indexFlag;
+	private boolean                 lazyFlag;
+	private boolean                 dedupFlag;
+
+	private volatile DeduplicationStats dedupStats;
+
+	/*
+	 * How the current configuration was loaded, when a change to a watched file has to repeat
+	 * that load as a whole rather than read the file alone. null after a single document load.
+	 */
+
+	private volatile LoadAction repeatableLoad;
+
+	/*
+	 * Held by every load and reload from reading the configuration until it is published, so that
+	 * the snapshot and the way it was loaded always change together, and a reload cannot publish a
+	 * configuration read before a newer load.
+	 */
+
+	private final Object loadLock = new Object();
+
+	private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Builds an immutable index of all configuration paths whenever a configuration is loaded, so
+	 * that lookups no longer walk the bound object graph. If a configuration is already loaded, it
+	 * is indexed right away.
+	 */
+
+	public final JacksonConfigProvider indexPaths() {
+		synchronized(loadLock) {
+			indexFlag = true;
+			ConfigSnapshot current = snapshot;
+			if(current != null) {
+				snapshot = current.indexed();
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Keeps subsequently loaded configurations as parsed document trees instead of binding them to
+	 * the root class. A subtree is bound to the requested type on the first call to
+	 * {@link #getValue(String, Class)} for its path, and the result is reused afterwards. Paths are
+	 * resolved against the property names in the document. Path indexing does not apply in this
+	 * mode.
+	 * <p>
+	 * The root class is not used for lookups in this mode. Defaults assigned by its field
+	 * initializers are therefore not seen, and {@link #contains(String)} reports only the paths
+	 * present in the document, which can differ from the answer of a bound configuration.
+	 */
+
+	public final JacksonConfigProvider bindLazily() {
+		lazyFlag = true;
+		return this;
+	}
+
+	/**
+	 * Deduplicates the scalar values of subsequently loaded configurations: repeated strings, map
+	 * keys, and boxed integers, longs and doubles are replaced by the first equal value read by the
+	 * same load, so that each distinct value is retained once. With lazy binding, the scalar nodes
+	 * of the document tree are deduplicated instead, except for trees read from a compiled cache.
+	 * The outcome of the last load is reported by {@link #getDeduplicationStats()}.
+	 */
+
+	public final JacksonConfigProvider deduplicateValues() {
+		dedupFlag = true;
+		return this;
+	}
+
+	/**
+	 * @return the outcome of deduplicating the values of the current configuration, or
+	 * <code>null</code> if it was loaded without deduplication
+	 */
+
+	public DeduplicationStats getDeduplicationStats() {
+		return dedupStats;
+	}
+
+	/**
+	 * Reports every lookup, including those made through {@link #contains(String)} and
+	 * {@link #getValue(String, Class)}, to the given listener. Lookups are only timed while a
+	 * listener is set.
+	 */
+
+	public final JacksonConfigProvider monitorLookups(LookupListener listener) {
+		setLookupListener(listener);
+		return this;
+	}
+
+	/**
+	 * Registers an action that is run whenever a loaded configuration is replaced, whether through
+	 * another load or through a watched file being reloaded. The action runs on the thread that
+	 * loaded the new configuration, after it has been published and before any other load is
+	 * applied.
+	 */
+
+	public void addChangeListener(Runnable listener) {
+		changeListeners.add(listener);
+	}
+
+	/**
+	 * Binds a single section of a configuration document to the given type, without binding or
+	 * building a tree of the rest of the document. The input is streamed, and every subtree outside
+	 * the section is skipped. The configuration held by this provider is not affected.
+	 *
+	 * @param prefix the section, as a JSON pointer such as <code>/crossbinder</code> or a dotted
+	 * path such as <code>crossbinder</code>
+	 * @return the bound section, or <code>null</code> if the document has no such section
+	 */
+
+	public static <T> T bindSection(InputStream input, ConfigFormat format, String prefix,
+			Class<T> type) throws IOException {
+		return SectionBinder.bind(input, format, prefix, type);
+	}
+
+	/**
+	 * Binds a single section of the document read from the given source. See
+	 * {@link #bindSection(InputStream, ConfigFormat, String, Class)}.
+	 */
+
+	public static <T> T bindSection(ConfigSource source, String prefix, Class<T> type)
+			throws IOException {
+		try(InputStream input = source.openStream()) {
+			return SectionBinder.bind(input, source.getFormat(), prefix, type);
+		}
+	}
 
 	public void loadYaml(Class<?> configRootCls, InputStream input)
 			throws JsonParseException, JsonMappingException, IOException {
-		YAMLFactory yfac = new YAMLFactory();
-		ObjectMapper mapper = new ObjectMapper(yfac);
-		configRoot = mapper.readValue(input, configRootCls);
+		synchronized(loadLock) {
+			ValueDeduplicator dedup = newDeduplicator();
+			publish(read(configRootCls, ConfigFormat.YAML, input, dedup), dedup, null);
+		}
 	}
 
 	public void loadJson(Class<?> configRootCls, InputStream input)
 			throws JsonParseException, JsonMappingException, IOException {
-		JsonFactory jfac = new JsonFactory();
-		ObjectMapper mapper = new ObjectMapper(jfac);
-		configRoot = mapper.readValue(input, configRootCls);
+		synchronized(loadLock) {
+			ValueDeduplicator dedup = newDeduplicator();
+			publish(read(configRootCls, ConfigFormat.JSON, input, dedup), dedup, null);
+		}
 	}
 
-	////////////////////////////////////////////////////////////////////////////
-	// Methods of interface ConfigurationProvider
+	/**
+	 * Loads an XML configuration. The document is bound to the root class while it is parsed, so
+	 * no DOM of the document is built.
+	 *
+	 * @throws IllegalArgumentException if this provider binds lazily. See {@link ConfigFormat#XML}.
+	 */
 
-	@Override
-	public boolean contains(String path) {
-		LOGGER.fine(String.format("checking for configuration {}", path));
-		try {
-			return (getValueRecursive(path, configRoot) != null);
+	public void loadXml(Class<?> configRootCls, InputStream input)
+			throws JsonParseException, JsonMappingException, IOException {
+		synchronized(loadLock) {
+			ValueDeduplicator dedup = newDeduplicator();
+			publish(read(configRootCls, ConfigFormat.XML, input, dedup), dedup, null);
+		}
+	}
+
+	public void loadYaml(Class<?> configRootCls, ConfigSource source) throws IOException {
+		load(configRootCls, source, ConfigFormat.YAML);
+	}
+
+	public void loadJson(Class<?> configRootCls, ConfigSource source) throws IOException {
+		load(configRootCls, source, ConfigFormat.JSON);
+	}
+
+	public void loadXml(Class<?> configRootCls, ConfigSource source) throws IOException {
+		load(configRootCls, source, ConfigFormat.XML);
+	}
+
+	/**
+	 * Loads a configuration from the given source, in the format reported by the source. The
+	 * stream opened from the source is always closed.
+	 */
+
+	public void load(Class<?> configRootCls, ConfigSource source) throws IOException {
+		load(configRootCls, source, source.getFormat());
+	}
+
+	/**
+	 * Loads a configuration made of several layers read from the given sources, each in the format
+	 * reported by its source. See {@link #loadJson(Class, List)} for how layers are merged.
+	 */
+
+	public void loadLayers(Class<?> configRootCls, List<ConfigSource> sources) throws IOException {
+		List<InputStream> layers = new ArrayList<>(sources.size());
+		List<ConfigFormat> formats = new ArrayList<>(sources.size());
+		synchronized(loadLock) {
+			try {
+				for(ConfigSource source : sources) {
+					formats.add(source.getFormat());
+					layers.add(source.openStream());
+				}
+				ValueDeduplicator dedup = newDeduplicator();
+				publish(read(configRootCls, formats, layers, dedup), dedup,
+						() -> loadLayers(configRootCls, sources));
+			}
+			finally {
+				closeAll(layers);
+			}
+		}
+	}
+
+	/**
+	 * Loads a configuration made of several YAML layers. See {@link #loadJson(Class, List)}.
+	 */
+
+	public void loadYaml(Class<?> configRootCls, List<InputStream> layers) throws IOException {
+		synchronized(loadLock) {
+			ValueDeduplicator dedup = newDeduplicator();
+			List<ConfigFormat> formats = Collections.nCopies(layers.size(), ConfigFormat.YAML);
+			publish(read(configRootCls, formats, layers, dedup), dedup, UNREPEATABLE);
 		}
-		catch (Exception exep) {
-			//NOOP
+	}
+
+	/**
+	 * Loads a configuration made of several layers, such as a base file followed by environment and
+	 * host specific overlays. The layers are parsed in parallel and deep-merged in list order, so
+	 * that a later layer takes precedence over all earlier layers. Objects are merged property by
+	 * property; any other value, including arrays, is replaced as a whole. The merged document is
+	 * then loaded like a single document. The streams are not closed.
+	 */
+
+	public void loadJson(Class<?> configRootCls, List<InputStream> layers) throws IOException {
+		synchronized(loadLock) {
+			ValueDeduplicator dedup = newDeduplicator();
+			List<ConfigFormat> formats = Collections.nCopies(layers.size(), ConfigFormat.JSON);
+			publish(read(configRootCls, formats, layers, dedup), dedup, UNREPEATABLE);
 		}
-		return false;
 	}
 
-	@Override
-	public Object getValue(String path, Class<?> type) {
-		Object value = null;
-		try {
-			value = getValueRecursive(path, configRoot);
+	/**
+	 * Loads a configuration file through a compiled binary cache kept next to it. The source format
+	 * is derived from the file extension. See {@link CompiledConfigCache}.
+	 */
+
+	public void loadCompiled(Class<?> configRootCls, Path file) throws IOException {
+		loadCompiled(configRootCls, file, new CompiledConfigCache());
+	}
+
+	/**
+	 * Loads a configuration file through the given compiled binary cache. The compiled form is used
+	 * when it matches the current content of the file; otherwise the file is parsed and the
+	 * compiled form refreshed.
+	 */
+
+	public void loadCompiled(Class<?> configRootCls, Path file, CompiledConfigCache cache)
+			throws IOException {
+		ConfigFormat format = formatOf(file);
+		synchronized(loadLock) {
+			ValueDeduplicator dedup = newDeduplicator();
+			publish(snapshotOf(configRootCls, cache.load(file, format), format, dedup), dedup,
+					() -> loadCompiled(configRootCls, file, cache));
 		}
-		catch (Exception exep) {
-			exep.printStackTrace();
-			return null;
+	}
+
+	/**
+	 * Reloads the configuration whenever the given file changes. The format is derived from the
+	 * file extension. See {@link #watch(Class, Path, ConfigFormat, long)}.
+	 */
+
+	public Closeable watch(Class<?> configRootCls, Path file) throws IOException {
+		return watch(configRootCls, file, formatOf(file), DEFAULT_DEBOUNCE_MILLIS);
+	}
+
+	/**
+	 * Reloads the configuration whenever the given file changes. The file is parsed on a background
+	 * thread once it has not changed for <code>debounceMillis</code>, and the new configuration
+	 * replaces the current one in a single step. Readers never block and never observe a partially
+	 * loaded configuration. If the changed file cannot be parsed, the current configuration is kept.
+	 * This method does not perform an initial load.
+	 * <p>
+	 * If the current configuration was loaded by {@link #loadLayers(Class, List)} or
+	 * {@link #loadCompiled(Class, Path, CompiledConfigCache)}, a change repeats that load as a whole,
+	 * with its own root class and sources, so that the watched file is merged with the other layers
+	 * or compiled again rather than replacing the configuration on its own. A configuration loaded
+	 * from a list of streams, or published by {@link ConfigProfiles}, cannot be read again, and
+	 * cannot be watched. Loads and reloads are applied one at a time, and a reload always repeats
+	 * the most recent load.
+	 *
+	 * @return a handle that stops watching the file when closed
+	 * @throws IllegalStateException if the current configuration cannot be read again
+	 */
+
+	public Closeable watch(Class<?> configRootCls, Path file, ConfigFormat format,
+			long debounceMillis) throws IOException {
+		if(repeatableLoad == UNREPEATABLE) {
+			throw new IllegalStateException(
+					"configuration that cannot be read again cannot be watched");
 		}
-		if(value == null) {
-			return null;
+		return new ConfigWatcher(file, debounceMillis, () -> reload(configRootCls, file, format));
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Primitive accessors. Each value is parsed once per loaded configuration and kept in primitive
+	// form, so repeated reads neither parse nor allocate.
+
+	public int getInt(String path, int defaultValue) {
+		ConfigSnapshot current = snapshot;
+		return (current == null) ? defaultValue : current.getScalar(path).intValue(defaultValue);
+	}
+
+	public long getLong(String path, long defaultValue) {
+		ConfigSnapshot current = snapshot;
+		return (current == null) ? defaultValue : current.getScalar(path).longValue(defaultValue);
+	}
+
+	public double getDouble(String path, double defaultValue) {
+		ConfigSnapshot current = snapshot;
+		return (current == null) ? defaultValue : current.getScalar(path).doubleValue(defaultValue);
+	}
+
+	public boolean getBoolean(String path, boolean defaultValue) {
+		ConfigSnapshot current = snapshot;
+		return (current == null) ? defaultValue : current.getScalar(path).booleanValue(defaultValue);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Methods of base class LookupConfigProvider
+
+	@Override
+	protected LookupResult lookupValue(String path) {
+		ConfigSnapshot current = snapshot;
+		if(current == null) {
+			return LookupResult.missing(path, 0);
 		}
+		return current.lookup(path);
+	}
 
-		if(type.isAssignableFrom(value.getClass())) {
-			return value;
+	@Override
+	protected LookupResult lookupValue(String path, Class<?> type) {
+		ConfigSnapshot current = snapshot;
+		if(current == null) {
+			return LookupResult.missing(path, 0);
 		}
-		return null;
+		return current.lookup(path, type);
 	}
 
 	////////////////////////////////////////////////////////////////////////////
 	// Helper methods
 
-	private Object getValueRecursive(String path, Object inst) throws Exception {
-		String[] parts = path.split("\\.", 2);
-		Object value = getValueFromFields(parts[0], inst.getClass(), inst);
-		if(value == null) {
-			value = getValueFromMethods(parts[0], inst.getClass(), inst);
+	private ValueDeduplicator newDeduplicator() {
+		return dedupFlag ? new ValueDeduplicator() : null;
+	}
+
+	private ObjectReader readerOf(ConfigFormat format, ValueDeduplicator dedup) {
+		if(lazyFlag) {
+			ObjectReader reader = format.treeReader();
+			return (dedup == null) ? reader : dedup.treeReader(reader);
 		}
-		if(value != null) {
-			if(parts.length > 1) {
-				return getValueRecursive(parts[1], value);
-			}
-			else {
-				return value;
+		if(dedup == null) {
+			return format.reader();
+		}
+		return dedup.bindingReader(format.deduplicatingReader());
+	}
+
+	private ConfigSnapshot read(Class<?> configRootCls, ConfigFormat format, InputStream input,
+			ValueDeduplicator dedup) throws JsonParseException, JsonMappingException, IOException {
+		ObjectReader reader = readerOf(format, dedup);
+		if(lazyFlag) {
+			return new TreeSnapshot(reader.readTree(input), format.reader());
+		}
+		return new BoundSnapshot(reader.forType(configRootCls).readValue(input), indexFlag);
+	}
+
+	private void load(Class<?> configRootCls, ConfigSource source, ConfigFormat format)
+			throws IOException {
+		synchronized(loadLock) {
+			try(InputStream input = source.openStream()) {
+				ValueDeduplicator dedup = newDeduplicator();
+				publish(read(configRootCls, format, input, dedup), dedup, null);
 			}
 		}
-		return null;
 	}
 
-	private Object getValueFromFields(String path, Class<?> type, Object inst) throws Exception {
-		Field[] fields = type.getDeclaredFields();
-		for(Field field : fields) {
-			JsonProperty ann = field.getAnnotation(JsonProperty.class);
-			if(ann != null) {
-				String annName = ann.value();
-				if(StringUtils.isBlank(annName)) {
-					annName = ann.defaultValue();
-				}
-				if(StringUtils.isBlank(annName)) {
-					annName = field.getName();
-				}
-				if(StringUtils.equals(path, annName)) {
-					boolean accessible = field.isAccessible();
-					if(!accessible) {
-						field.setAccessible(true);
-					}
-					Object value = field.get(inst);
-					if(!accessible) {
-						field.setAccessible(false);
-					}
-					return value;
-				}
+	private ConfigSnapshot read(Class<?> configRootCls, List<ConfigFormat> formats,
+			List<InputStream> layers, ValueDeduplicator dedup) throws IOException {
+		if(layers.isEmpty()) {
+			throw new IllegalArgumentException("no configuration layers given");
+		}
+		List<ObjectReader> readers = new ArrayList<>(layers.size());
+		for(ConfigFormat format : formats) {
+			readers.add(lazyFlag ? readerOf(format, dedup) : format.treeReader());
+		}
+		List<CompletableFuture<JsonNode>> futures = new ArrayList<>(layers.size());
+		for(int i=0; i<layers.size(); i++) {
+			ObjectReader reader = readers.get(i);
+			InputStream input = layers.get(i);
+			futures.add(CompletableFuture.supplyAsync(() -> readTree(reader, input)));
+		}
+		List<JsonNode> trees = new ArrayList<>(layers.size());
+		try {
+			for(CompletableFuture<JsonNode> future : futures) {
+				trees.add(future.join());
 			}
 		}
-		Class<?> supCls = type.getSuperclass();
-		while(supCls != null) {
-			Object value = getValueFromFields(path, supCls, inst);
-			if(value != null) {
-				return value;
+		catch(CompletionException exep) {
+			Throwable cause = exep.getCause();
+			if(cause instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) cause).getCause();
+			}
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
 			}
-			supCls = supCls.getSuperclass();
+			throw exep;
 		}
-		return null;
+		return snapshotOf(configRootCls, ConfigMerger.merge(trees), formats.get(0), dedup);
 	}
 
-	private Object getValueFromMethods(String path, Class<?> type, Object inst) throws Exception {
-		Method[] methods = type.getDeclaredMethods();
-		for(Method method : methods) {
-			JsonProperty ann = method.getAnnotation(JsonProperty.class);
-			if(ann != null) {
-				String annName = ann.value();
-				if(StringUtils.isBlank(annName)) {
-					annName = ann.defaultValue();
-				}
-				if(StringUtils.isBlank(annName)) {
-					annName = getNameFromMethod(method);
-				}
-				if(StringUtils.equals(path, annName)) {
-					boolean accessible = method.isAccessible();
-					if(!accessible) {
-						method.setAccessible(true);
-					}
-					Object value = method.invoke(inst);
-					if(!accessible) {
-						method.setAccessible(false);
-					}
-					return value;
-				}
-			}
+	private ConfigSnapshot snapshotOf(Class<?> configRootCls, JsonNode tree, ConfigFormat format,
+			ValueDeduplicator dedup) throws IOException {
+		if(lazyFlag) {
+			return new TreeSnapshot(tree, format.reader());
 		}
-		return null;
+		ObjectReader reader = readerOf(format, dedup);
+		return new BoundSnapshot(reader.forType(configRootCls).readValue(tree), indexFlag);
 	}
 
-	private String getNameFromMethod(Method method) {
-		if(method.getParameterCount() > 0) {
-			return null;
+	static ConfigFormat formatOf(Path file) {
+		ConfigFormat format = ConfigFormat.forFileName(file.getFileName().toString());
+		if(format == null) {
+			throw new IllegalArgumentException(String.format("unknown configuration format: %s", file));
+		}
+		return format;
+	}
+
+	/**
+	 * Publishes a configuration that was put together outside this provider, such as a profile.
+	 * It cannot be read again by this provider, and cannot be watched.
+	 */
+
+	void publish(ConfigSnapshot loaded) {
+		synchronized(loadLock) {
+			publish(loaded, null, UNREPEATABLE);
+		}
+	}
+
+	/*
+	 * Called with the load lock held. Change listeners run on the loading thread while it is
+	 * held, so that they observe the configuration they are notified of.
+	 */
+
+	private void publish(ConfigSnapshot loaded, ValueDeduplicator dedup, LoadAction action) {
+		DeduplicationStats stats = null;
+		if(dedup != null) {
+			stats = dedup.finish();
+			LOGGER.info(String.format("configuration loaded, %s", stats));
+		}
+		dedupStats = stats;
+		repeatableLoad = action;
+		ConfigSnapshot previous = snapshot;
+		snapshot = loaded;
+		if(previous == null) {
+			return;
 		}
-		if(method.getReturnType().equals(Void.TYPE)) {
-			return null;
+		for(Runnable changeListener : changeListeners) {
+			try {
+				changeListener.run();
+			}
+			catch(RuntimeException exep) {
+				LOGGER.log(Level.WARNING, "error notifying configuration change", exep);
+			}
 		}
+	}
 
-		String mthdName = method.getName();
-		if(mthdName.startsWith("get")) {
-			if(mthdName.length() <= 3) {
-				return null;
+	private void closeAll(List<InputStream> layers) {
+		for(InputStream input : layers) {
+			try {
+				input.close();
 			}
-			if(method.getReturnType().equals(Boolean.class) || method.getReturnType().equals(Boolean.TYPE)) {
-				return null;
+			catch(IOException exep) {
+				LOGGER.log(Level.FINE, "error closing configuration source", exep);
 			}
-			StringBuffer buffer = new StringBuffer(StringUtils.removeStart(mthdName, "get"));
-			buffer.setCharAt(0, Character.toLowerCase(buffer.charAt(0)));
-			return buffer.toString();
 		}
-		else if(!mthdName.startsWith("is")) {
-			if(mthdName.length() <= 2) {
-				return null;
+	}
+
+	private JsonNode readTree(ObjectReader reader, InputStream input) {
+		try {
+			return reader.readTree(input);
+		}
+		catch(IOException exep) {
+			throw new UncheckedIOException(exep);
+		}
+	}
+
+	private void reload(Class<?> configRootCls, Path file, ConfigFormat format) {
+		LOGGER.info(String.format("reloading configuration from %s", file));
+		synchronized(loadLock) {
+			LoadAction action = repeatableLoad;
+			if(action == UNREPEATABLE) {
+				LOGGER.warning(String.format(
+						"configuration cannot be read again, ignoring change of %s", file));
+				return;
 			}
-			if(!method.getReturnType().equals(Boolean.class) && !method.getReturnType().equals(Boolean.TYPE)) {
-				return null;
+			try {
+				if(action != null) {
+					action.run();
+					return;
+				}
+				ValueDeduplicator dedup = newDeduplicator();
+				try(InputStream input = Files.newInputStream(file)) {
+					publish(read(configRootCls, format, input, dedup), dedup, null);
+				}
+			}
+			catch(Exception exep) {
+				LOGGER.log(Level.WARNING, String.format("error reloading configuration from %s, "
+						+ "keeping current configuration", file), exep);
 			}
-			StringBuffer buffer = new StringBuffer(StringUtils.removeStart(mthdName, "is"));
-			buffer.setCharAt(0, Character.toLowerCase(buffer.charAt(0)));
-			return buffer.toString();
 		}
-		return null;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner interface for a load that can be repeated
+
+	private interface LoadAction {
+
+		void run() throws IOException;
 	}
 }
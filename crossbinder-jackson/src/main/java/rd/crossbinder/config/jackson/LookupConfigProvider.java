@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import rd.crossbinder.hod.ConfigurationProvider;
+
+/**
+ * Base class for providers that answer each configuration path with a single-pass lookup. Every
+ * lookup, including those made through {@link #contains(String)} and
+ * {@link #getValue(String, Class)}, is reported to the lookup listener and the event tracer, if
+ * any. Lookups are only timed while one of them is interested.
+ *
+ * @author randondiesel
+ *
+ */
+
+public abstract class LookupConfigProvider implements ConfigurationProvider {
+
+	private static final Logger LOGGER = Logger.getLogger(LookupConfigProvider.class.getName());
+
+	private static final EventTracer TRACER = EventTracers.get();
+
+	private LookupListener listener;
+
+	/**
+	 * Looks up the value at the given path in a single pass. Unlike a call to
+	 * {@link #contains(String)} followed by {@link #getValue(String, Class)}, the configuration is
+	 * traversed once, and a missing value is reported in the result, together with the first path
+	 * segment that has no value, rather than through an exception.
+	 */
+
+	public final LookupResult lookup(String path) {
+		LookupListener current = listener;
+		Object token = TRACER.beginLookup();
+		if(current == null && token == null) {
+			return lookupValue(path);
+		}
+		long start = System.nanoTime();
+		LookupResult result = lookupValue(path);
+		lookupCompleted(path, result, start, current, token);
+		return result;
+	}
+
+	/**
+	 * Looks up the value at the given path as an instance of the given type in a single pass. A
+	 * value that is not, or cannot be made, an instance of that type is reported as missing at the
+	 * last segment of the path.
+	 */
+
+	public final LookupResult lookup(String path, Class<?> type) {
+		LookupListener current = listener;
+		Object token = TRACER.beginLookup();
+		if(current == null && token == null) {
+			return lookupValue(path, type);
+		}
+		long start = System.nanoTime();
+		LookupResult result = lookupValue(path, type);
+		lookupCompleted(path, result, start, current, token);
+		return result;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Methods of interface ConfigurationProvider
+
+	@Override
+	public boolean contains(String path) {
+		if(LOGGER.isLoggable(Level.FINE)) {
+			LOGGER.fine(String.format("checking for configuration %s", path));
+		}
+		return lookup(path).isFound();
+	}
+
+	@Override
+	public Object getValue(String path, Class<?> type) {
+		return lookup(path, type).getValue();
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Methods to be implemented or used from derived classes
+
+	/**
+	 * Sets the listener that every subsequent lookup is reported to, or removes it if
+	 * <code>null</code>. See {@link LookupListener}.
+	 */
+
+	protected final void setLookupListener(LookupListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * @return the outcome of looking up the value at the given path in its native form
+	 */
+
+	protected abstract LookupResult lookupValue(String path);
+
+	/**
+	 * @return the outcome of looking up the value at the given path as an instance of the given
+	 * type
+	 */
+
+	protected abstract LookupResult lookupValue(String path, Class<?> type);
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private void lookupCompleted(String path, LookupResult result, long start,
+			LookupListener current, Object token) {
+		if(current != null) {
+			current.lookupCompleted(path, result.isFound(), System.nanoTime() - start);
+		}
+		if(token != null) {
+			TRACER.endLookup(token, getClass(), path, result.isFound());
+		}
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+/**
+ * Receives the outcome of every configuration lookup made through a provider, for instrumentation.
+ * Implementations are called on the thread performing the lookup and must be thread safe and
+ * cheap.
+ *
+ * @author randondiesel
+ *
+ */
+
+@FunctionalInterface
+public interface LookupListener {
+
+	/**
+	 * @param path the path that was looked up
+	 * @param found whether a value was found
+	 * @param nanos the time taken by the lookup, in nanoseconds
+	 */
+
+	void lookupCompleted(String path, boolean found, long nanos);
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+/**
+ * The outcome of a single configuration lookup. A lookup that finds no value reports the index of
+ * the first path segment that could not be resolved, instead of throwing an exception.
+ *
+ * @author randondiesel
+ *
+ */
+
+public final class LookupResult {
+
+	private final Object value;
+	private final String path;
+	private final int    failedIndex;
+
+	private LookupResult(Object value, String path, int failedIndex) {
+		this.value = value;
+		this.path = path;
+		this.failedIndex = failedIndex;
+	}
+
+	public static LookupResult found(Object value) {
+		return new LookupResult(value, null, -1);
+	}
+
+	/**
+	 * @param path the path that was looked up
+	 * @param failedIndex the index of the first segment of the path that has no value
+	 */
+
+	public static LookupResult missing(String path, int failedIndex) {
+		return new LookupResult(null, path, failedIndex);
+	}
+
+	/**
+	 * @return the outcome of a lookup that reached the last segment of the given path, but whose
+	 * value is absent or not of the requested type
+	 */
+
+	public static LookupResult missingAtLastSegment(String path) {
+		int failedIndex = 0;
+		for(int dot = path.indexOf('.'); dot >= 0; dot = path.indexOf('.', dot + 1)) {
+			failedIndex++;
+		}
+		return new LookupResult(null, path, failedIndex);
+	}
+
+	public boolean isFound() {
+		return (failedIndex < 0);
+	}
+
+	/**
+	 * @return the value found, or <code>null</code> if the lookup failed
+	 */
+
+	public Object getValue() {
+		return value;
+	}
+
+	/**
+	 * @return the index of the first path segment that has no value, or <code>-1</code> if the value
+	 * was found
+	 */
+
+	public int getFailedSegmentIndex() {
+		return failedIndex;
+	}
+
+	/**
+	 * @return the first path segment that has no value, or <code>null</code> if the value was found
+	 */
+
+	public String getFailedSegment() {
+		if(failedIndex < 0) {
+			return null;
+		}
+		String[] segments = path.split("\\.");
+		return segments[Math.min(failedIndex, segments.length - 1)];
+	}
+
+	@Override
+	public String toString() {
+		if(isFound()) {
+			return String.format("found: %s", value);
+		}
+		return String.format("missing: %s at segment '%s'", path, getFailedSegment());
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A configuration document in a file that is memory-mapped instead of read through the file
+ * system. The parser reads straight from the mapped pages, which avoids copying a large file into
+ * an intermediate heap buffer first. The file is limited to 2 GB.
+ *
+ * @author randondiesel
+ *
+ */
+
+public class MappedFileConfigSource extends FileConfigSource {
+
+	public MappedFileConfigSource(Path file) {
+		super(file);
+	}
+
+	@Override
+	public InputStream openStream() throws IOException {
+		try(FileChannel channel = FileChannel.open(getFile(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if(size > Integer.MAX_VALUE) {
+				throw new IOException(String.format("file %s too large to map", getFile()));
+			}
+			/*
+			 * The mapping stays valid after the channel is closed, and is released once the buffer
+			 * is no longer referenced.
+			 */
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			return new ByteBufferInputStream(buffer);
+		}
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import rd.crossbinder.config.jackson.PropertyAccessors.PropertyAccessor;
+
+/**
+ * A dotted configuration path compiled against a root class into a chain of property accessors.
+ * Chains are cached per root class and path once the path has been found, so a repeated lookup
+ * costs a map probe and one method handle call per segment. If an accessor was generated at compile
+ * time for the root class, it is asked first, and the chain is only used for paths it does not
+ * know.
+ *
+ * @author randondiesel
+ *
+ */
+
+final class PathAccessor {
+
+	private static final Logger LOGGER = Logger.getLogger(PathAccessor.class.getName());
+
+	private static final ClassValue<ConcurrentMap<String, PathAccessor>> CACHE =
+			new ClassValue<ConcurrentMap<String, PathAccessor>>() {
+
+		@Override
+		protected ConcurrentMap<String, PathAccessor> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private final String                             path;
+	private final BiFunction<Object, String, Object> generated;
+	private final String[]                           segments;
+	private final String[]                           prefixes;
+	private final Step[]                             steps;
+
+	private PathAccessor(Class<?> rootCls, String path) {
+		this.path = path;
+		generated = GeneratedAccessors.find(rootCls);
+		segments = path.split("\\.");
+		prefixes = (generated == null) ? null : prefixesOf(segments);
+		steps = new Step[segments.length];
+		Class<?> owner = rootCls;
+		for(int i=0; i<segments.length && owner != null; i++) {
+			PropertyAccessor accessor = PropertyAccessors.find(owner, segments[i]);
+			steps[i] = new Step(owner, accessor);
+			owner = (accessor == null) ? null : accessor.getValueType();
+		}
+	}
+
+	/**
+	 * Resolves the given path against the given root. The compiled chain is only cached for a path
+	 * that was found, so that lookups of paths the root class does not have, such as probes built
+	 * by callers, do not grow the cache.
+	 */
+
+	static LookupResult lookup(Object root, String path) {
+		if(root == null) {
+			return LookupResult.missing(path, 0);
+		}
+		ConcurrentMap<String, PathAccessor> accessors = CACHE.get(root.getClass());
+		PathAccessor accessor = accessors.get(path);
+		if(accessor != null) {
+			return accessor.lookup(root);
+		}
+		accessor = new PathAccessor(root.getClass(), path);
+		LookupResult result = accessor.lookup(root);
+		if(result.isFound()) {
+			accessors.putIfAbsent(path, accessor);
+		}
+		return result;
+	}
+
+	/**
+	 * Resolves this path against the given root in a single pass. A missing or <code>null</code>
+	 * value, an unknown property and a failing getter all end the lookup at the segment concerned,
+	 * without an exception being thrown to the caller.
+	 */
+
+	private LookupResult lookup(Object root) {
+		if(generated != null) {
+			try {
+				Object value = generated.apply(root, path);
+				if(value != null && value != generated) {
+					return LookupResult.found(value);
+				}
+				if(value == null) {
+					int failedIndex = findGeneratedMiss(root);
+					if(failedIndex >= 0) {
+						return LookupResult.missing(path, failedIndex);
+					}
+				}
+			}
+			catch(RuntimeException exep) {
+				LOGGER.log(Level.FINE, String.format("unable to read configuration %s", path), exep);
+			}
+		}
+		Object value = root;
+		for(int i=0; i<segments.length; i++) {
+			PropertyAccessor accessor = accessorFor(i, value.getClass());
+			if(accessor == null) {
+				return LookupResult.missing(path, i);
+			}
+			try {
+				value = accessor.get(value);
+			}
+			catch(Error err) {
+				throw err;
+			}
+			catch(Throwable thr) {
+				LOGGER.log(Level.FINE, String.format("unable to read configuration %s", path), thr);
+				return LookupResult.missing(path, i);
+			}
+			if(value == null) {
+				return LookupResult.missing(path, i);
+			}
+		}
+		return LookupResult.found(value);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	/*
+	 * The generated accessor answers null both for a missing leaf and for a missing intermediate
+	 * value. The segment that failed is found by asking it for each enclosing path in turn.
+	 */
+
+	private int findGeneratedMiss(Object root) {
+		for(int i=0; i<prefixes.length; i++) {
+			Object value = generated.apply(root, prefixes[i]);
+			if(value == generated) {
+				return -1;
+			}
+			if(value == null) {
+				return i;
+			}
+		}
+		return segments.length - 1;
+	}
+
+	private static String[] prefixesOf(String[] segments) {
+		String[] result = new String[segments.length - 1];
+		StringBuilder buffer = new StringBuilder();
+		for(int i=0; i<result.length; i++) {
+			if(i > 0) {
+				buffer.append('.');
+			}
+			result[i] = buffer.append(segments[i]).toString();
+		}
+		return result;
+	}
+
+	/*
+	 * Each step remembers the class it was last resolved against. Steps after the first are
+	 * resolved from the declared property type, and re-resolved when the runtime class of a value
+	 * differs. A step is an immutable object, so replacing it without a lock is safe; a racing
+	 * reader sees either the old or the new step, both of which are valid.
+	 */
+
+	private PropertyAccessor accessorFor(int index, Class<?> type) {
+		Step step = steps[index];
+		if(step != null && step.owner == type) {
+			return step.accessor;
+		}
+		PropertyAccessor accessor = PropertyAccessors.find(type, segments[index]);
+		steps[index] = new Step(type, accessor);
+		return accessor;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner class for a resolved path segment
+
+	private static final class Step {
+
+		private final Class<?>         owner;
+		private final PropertyAccessor accessor;
+
+		Step(Class<?> owner, PropertyAccessor accessor) {
+			this.owner = owner;
+			this.accessor = accessor;
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import rd.crossbinder.config.jackson.PropertyAccessors.PropertyAccessor;
+
+/**
+ * An immutable snapshot of every non-null value reachable from a bound configuration root, keyed
+ * by its dotted path. Intermediate nodes are indexed as well as leaf values. The index is built
+ * once, after which lookups are a single hash probe regardless of nesting depth.
+ *
+ * @author randondiesel
+ *
+ */
+
+final class PathIndex {
+
+	private static final Logger LOGGER = Logger.getLogger(PathIndex.class.getName());
+
+	private final Map<String, Object> values;
+
+	private PathIndex(Map<String, Object> values) {
+		this.values = Collections.unmodifiableMap(values);
+	}
+
+	static PathIndex build(Object root) {
+		Map<String, Object> values = new HashMap<>();
+		if(root != null) {
+			Set<Object> visiting = Collections.newSetFromMap(new IdentityHashMap<>());
+			visit(null, root, values, visiting);
+		}
+		LOGGER.fine(String.format("indexed %d configuration paths", values.size()));
+		return new PathIndex(values);
+	}
+
+	Object get(String path) {
+		return values.get(path);
+	}
+
+	/**
+	 * @return the value at the given path, or the first segment of the path that has no value
+	 */
+
+	LookupResult lookup(String path) {
+		Object value = values.get(path);
+		if(value != null) {
+			return LookupResult.found(value);
+		}
+		int index = 0;
+		for(int dot = path.indexOf('.'); dot >= 0; dot = path.indexOf('.', dot + 1)) {
+			if(!values.containsKey(path.substring(0, dot))) {
+				return LookupResult.missing(path, index);
+			}
+			index++;
+		}
+		return LookupResult.missing(path, index);
+	}
+
+	boolean contains(String path) {
+		return values.containsKey(path);
+	}
+
+	Set<String> paths() {
+		return values.keySet();
+	}
+
+	int size() {
+		return values.size();
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static void visit(String prefix, Object node, Map<String, Object> values,
+			Set<Object> visiting) {
+		if(!visiting.add(node)) {
+			return;
+		}
+		for(PropertyAccessor accessor : PropertyAccessors.list(node.getClass())) {
+			String path = (prefix == null) ? accessor.getName() : prefix + "." + accessor.getName();
+			Object value = null;
+			try {
+				value = accessor.get(node);
+			}
+			catch(Throwable thr) {
+				LOGGER.log(Level.FINE, String.format("unable to read configuration %s", path), thr);
+			}
+			if(value == null) {
+				continue;
+			}
+			values.put(path, value);
+			visit(path, value, values, visiting);
+		}
+		visiting.remove(node);
+	}
+}
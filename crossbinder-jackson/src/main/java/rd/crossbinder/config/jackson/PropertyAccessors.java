@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Resolves the <code>@JsonProperty</code> members of a class into method handles, once per class.
+ * The resolved handles are published through a <code>ClassValue</code> and are safe to share
+ * between threads.
+ *
+ * @author randondiesel
+ *
+ */
+
+final class PropertyAccessors {
+
+	private static final Logger LOGGER = Logger.getLogger(PropertyAccessors.class.getName());
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final ClassValue<Map<String, PropertyAccessor>> ACCESSORS =
+			new ClassValue<Map<String, PropertyAccessor>>() {
+
+		@Override
+		protected Map<String, PropertyAccessor> computeValue(Class<?> type) {
+			return Collections.unmodifiableMap(resolve(type));
+		}
+	};
+
+	private PropertyAccessors() {
+		//NOOP
+	}
+
+	static PropertyAccessor find(Class<?> type, String name) {
+		return ACCESSORS.get(type).get(name);
+	}
+
+	static Collection<PropertyAccessor> list(Class<?> type) {
+		return ACCESSORS.get(type).values();
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static Map<String, PropertyAccessor> resolve(Class<?> type) {
+		Map<String, MethodHandle> fieldHandles = new HashMap<>();
+		Class<?> cls = type;
+		while(cls != null) {
+			for(Field field : cls.getDeclaredFields()) {
+				JsonProperty ann = field.getAnnotation(JsonProperty.class);
+				if(ann == null) {
+					continue;
+				}
+				String name = propertyName(ann, field.getName());
+				if(fieldHandles.containsKey(name)) {
+					continue;
+				}
+				MethodHandle handle = unreflect(field);
+				if(handle != null) {
+					fieldHandles.put(name, handle);
+				}
+			}
+			cls = cls.getSuperclass();
+		}
+
+		Map<String, MethodHandle> methodHandles = new HashMap<>();
+		cls = type;
+		while(cls != null) {
+			for(Method method : cls.getDeclaredMethods()) {
+				JsonProperty ann = method.getAnnotation(JsonProperty.class);
+				if(ann == null || method.getParameterCount() > 0 || method.isBridge()) {
+					continue;
+				}
+				String name = propertyName(ann, getNameFromMethod(method));
+				if(name == null || methodHandles.containsKey(name)) {
+					continue;
+				}
+				MethodHandle handle = unreflect(method);
+				if(handle != null) {
+					methodHandles.put(name, handle);
+				}
+			}
+			cls = cls.getSuperclass();
+		}
+
+		Map<String, PropertyAccessor> result = new HashMap<>();
+		for(Map.Entry<String, MethodHandle> entry : fieldHandles.entrySet()) {
+			String name = entry.getKey();
+			result.put(name, new PropertyAccessor(name, entry.getValue(), methodHandles.get(name)));
+		}
+		for(Map.Entry<String, MethodHandle> entry : methodHandles.entrySet()) {
+			String name = entry.getKey();
+			if(!result.containsKey(name)) {
+				result.put(name, new PropertyAccessor(name, null, entry.getValue()));
+			}
+		}
+		return result;
+	}
+
+	private static String propertyName(JsonProperty ann, String memberName) {
+		String annName = ann.value();
+		if(StringUtils.isBlank(annName)) {
+			annName = ann.defaultValue();
+		}
+		if(StringUtils.isBlank(annName)) {
+			annName = memberName;
+		}
+		return annName;
+	}
+
+	/*
+	 * The accessibility flag is only changed on the reflective copy handed out by
+	 * getDeclaredFields() and getDeclaredMethods(), which never escapes this method. The resulting
+	 * handle keeps its access rights without the flag being touched again.
+	 */
+
+	private static MethodHandle unreflect(Field field) {
+		try {
+			field.setAccessible(true);
+			return MethodHandles.lookup().unreflectGetter(field);
+		}
+		catch(Exception exep) {
+			LOGGER.log(Level.FINE, String.format("field %s not accessible", field), exep);
+			return null;
+		}
+	}
+
+	private static MethodHandle unreflect(Method method) {
+		if(method.getReturnType().equals(Void.TYPE)) {
+			return null;
+		}
+		try {
+			method.setAccessible(true);
+			return MethodHandles.lookup().unreflect(method);
+		}
+		catch(Exception exep) {
+			LOGGER.log(Level.FINE, String.format("method %s not accessible", method), exep);
+			return null;
+		}
+	}
+
+	private static String getNameFromMethod(Method method) {
+		if(method.getParameterCount() > 0) {
+			return null;
+		}
+		if(method.getReturnType().equals(Void.TYPE)) {
+			return null;
+		}
+
+		String mthdName = method.getName();
+		if(mthdName.startsWith("get")) {
+			if(mthdName.length() <= 3) {
+				return null;
+			}
+			if(method.getReturnType().equals(Boolean.class) || method.getReturnType().equals(Boolean.TYPE)) {
+				return null;
+			}
+			StringBuffer buffer = new StringBuffer(StringUtils.removeStart(mthdName, "get"));
+			buffer.setCharAt(0, Character.toLowerCase(buffer.charAt(0)));
+			return buffer.toString();
+		}
+		else if(mthdName.startsWith("is")) {
+			if(mthdName.length() <= 2) {
+				return null;
+			}
+			if(!method.getReturnType().equals(Boolean.class) && !method.getReturnType().equals(Boolean.TYPE)) {
+				return null;
+			}
+			StringBuffer buffer = new StringBuffer(StringUtils.removeStart(mthdName, "is"));
+			buffer.setCharAt(0, Character.toLowerCase(buffer.charAt(0)));
+			return buffer.toString();
+		}
+		return null;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner class that reads one property of an instance
+
+	static final class PropertyAccessor {
+
+		private final String       name;
+		private final Class<?>     valueType;
+		private final MethodHandle fieldHandle;
+		private final MethodHandle methodHandle;
+
+		PropertyAccessor(String name, MethodHandle fieldHandle, MethodHandle methodHandle) {
+			this.name = name;
+			valueType = (fieldHandle != null ? fieldHandle : methodHandle).type().returnType();
+			this.fieldHandle = (fieldHandle == null) ? null : fieldHandle.asType(GETTER_TYPE);
+			this.methodHandle = (methodHandle == null) ? null : methodHandle.asType(GETTER_TYPE);
+		}
+
+		String getName() {
+			return name;
+		}
+
+		Class<?> getValueType() {
+			return valueType;
+		}
+
+		Object get(Object inst) throws Throwable {
+			Object value = null;
+			if(fieldHandle != null) {
+				value = fieldHandle.invokeExact(inst);
+			}
+			if(value == null && methodHandle != null) {
+				value = methodHandle.invokeExact(inst);
+			}
+			return value;
+		}
+	}
+}
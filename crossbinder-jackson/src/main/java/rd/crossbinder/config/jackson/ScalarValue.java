@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A configuration value parsed once into primitive form. Numbers, booleans and their textual
+ * representations are recognized; any other value converts to nothing, and the accessors return
+ * the given default.
+ *
+ * @author randondiesel
+ *
+ */
+
+final class ScalarValue {
+
+	private static final ScalarValue NONE = new ScalarValue(false, false, 0L, 0.0, false, false);
+
+	private final boolean integral;
+	private final boolean numeric;
+	private final long    longValue;
+	private final double  doubleValue;
+	private final boolean bool;
+	private final boolean boolValue;
+
+	private ScalarValue(boolean integral, boolean numeric, long longValue, double doubleValue,
+			boolean bool, boolean boolValue) {
+		this.integral = integral;
+		this.numeric = numeric;
+		this.longValue = longValue;
+		this.doubleValue = doubleValue;
+		this.bool = bool;
+		this.boolValue = boolValue;
+	}
+
+	static ScalarValue of(Object value) {
+		if(value instanceof JsonNode) {
+			JsonNode node = (JsonNode) value;
+			if(node.isNumber()) {
+				value = node.numberValue();
+			}
+			else if(node.isBoolean()) {
+				value = node.booleanValue();
+			}
+			else if(node.isTextual()) {
+				value = node.textValue();
+			}
+			else {
+				return NONE;
+			}
+		}
+
+		if(value instanceof Boolean) {
+			return new ScalarValue(false, false, 0L, 0.0, true, (Boolean) value);
+		}
+		if(value instanceof Byte || value instanceof Short || value instanceof Integer
+				|| value instanceof Long) {
+			long number = ((Number) value).longValue();
+			return new ScalarValue(true, true, number, number, false, false);
+		}
+		if(value instanceof Number) {
+			return ofDouble(((Number) value).doubleValue());
+		}
+		if(value instanceof CharSequence) {
+			return parse(value.toString().trim());
+		}
+		return NONE;
+	}
+
+	int intValue(int defaultValue) {
+		if(integral && longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
+			return (int) longValue;
+		}
+		return defaultValue;
+	}
+
+	long longValue(long defaultValue) {
+		return integral ? longValue : defaultValue;
+	}
+
+	double doubleValue(double defaultValue) {
+		return numeric ? doubleValue : defaultValue;
+	}
+
+	boolean booleanValue(boolean defaultValue) {
+		return bool ? boolValue : defaultValue;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static ScalarValue ofDouble(double number) {
+		boolean integral = (number == Math.rint(number) && !Double.isInfinite(number)
+				&& number >= Long.MIN_VALUE && number <= Long.MAX_VALUE);
+		return new ScalarValue(integral, true, (long) number, number, false, false);
+	}
+
+	private static ScalarValue parse(String text) {
+		if(text.equalsIgnoreCase("true")) {
+			return new ScalarValue(false, false, 0L, 0.0, true, true);
+		}
+		if(text.equalsIgnoreCase("false")) {
+			return new ScalarValue(false, false, 0L, 0.0, true, false);
+		}
+		try {
+			long number = Long.parseLong(text);
+			return new ScalarValue(true, true, number, number, false, false);
+		}
+		catch(NumberFormatException exep) {
+			//NOOP
+		}
+		try {
+			return ofDouble(Double.parseDouble(text));
+		}
+		catch(NumberFormatException exep) {
+			return NONE;
+		}
+	}
+}
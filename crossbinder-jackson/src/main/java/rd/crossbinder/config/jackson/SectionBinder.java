@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Binds one section of a configuration document without reading the rest of it into memory. The
+ * document is streamed, every subtree outside the section is skipped token by token, and only the
+ * section itself is bound.
+ *
+ * @author randondiesel
+ *
+ */
+
+final class SectionBinder {
+
+	private SectionBinder() {
+		//NOOP
+	}
+
+	/**
+	 * @param prefix a JSON pointer such as <code>/crossbinder/core-packages</code>, or a dotted path
+	 * such as <code>crossbinder.core-packages</code>. Numeric segments select array elements.
+	 * @return the bound section, or <code>null</code> if the document has no such section
+	 */
+
+	static <T> T bind(InputStream input, ConfigFormat format, String prefix, Class<T> type)
+			throws IOException {
+		ObjectReader reader = format.reader();
+		try(JsonParser parser = reader.getFactory().createParser(input)) {
+			if(parser.nextToken() == null) {
+				return null;
+			}
+			for(String segment : segmentsOf(prefix)) {
+				if(!seek(parser, segment)) {
+					return null;
+				}
+			}
+			if(parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+				return null;
+			}
+			return reader.forType(type).readValue(parser);
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static List<String> segmentsOf(String prefix) {
+		List<String> result = new ArrayList<>();
+		if(prefix.startsWith("/")) {
+			for(String segment : prefix.substring(1).split("/", -1)) {
+				result.add(segment.replace("~1", "/").replace("~0", "~"));
+			}
+		}
+		else if(!prefix.isEmpty()) {
+			for(String segment : prefix.split("\\.")) {
+				result.add(segment);
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Advances the parser from the start of a container to the first token of the value under the
+	 * given segment, skipping the values that precede it.
+	 */
+
+	private static boolean seek(JsonParser parser, String segment) throws IOException {
+		JsonToken token = parser.getCurrentToken();
+		if(token == JsonToken.START_OBJECT) {
+			while(parser.nextToken() == JsonToken.FIELD_NAME) {
+				String name = parser.getCurrentName();
+				parser.nextToken();
+				if(segment.equals(name)) {
+					return true;
+				}
+				parser.skipChildren();
+			}
+			return false;
+		}
+		if(token == JsonToken.START_ARRAY) {
+			int index = indexOf(segment);
+			for(int i=0; index >= 0; i++) {
+				JsonToken element = parser.nextToken();
+				if(element == null || element == JsonToken.END_ARRAY) {
+					return false;
+				}
+				if(i == index) {
+					return true;
+				}
+				parser.skipChildren();
+			}
+		}
+		return false;
+	}
+
+	private static int indexOf(String segment) {
+		if(segment.isEmpty() || segment.length() > 9) {
+			return -1;
+		}
+		for(int i=0; i<segment.length(); i++) {
+			if(!Character.isDigit(segment.charAt(i))) {
+				return -1;
+			}
+		}
+		return Integer.parseInt(segment);
+	}
+}
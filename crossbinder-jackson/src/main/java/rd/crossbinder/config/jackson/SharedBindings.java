@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Values bound from document nodes, keyed by node identity rather than by path, so that document
+ * trees sharing a subtree also share the values bound from it. Nodes are held weakly: once no
+ * published tree refers to a node any more, for example after the profile it belonged to was
+ * redefined, its entry and the values bound from it are dropped.
+ *
+ * @author randondiesel
+ *
+ */
+
+final class SharedBindings {
+
+	private final ConcurrentMap<NodeKey, ConcurrentMap<Class<?>, Object>> bindings;
+	private final ReferenceQueue<JsonNode>                                cleared;
+
+	SharedBindings() {
+		bindings = new ConcurrentHashMap<>();
+		cleared = new ReferenceQueue<>();
+	}
+
+	/**
+	 * @return the values bound from the given node instance, by type
+	 */
+
+	ConcurrentMap<Class<?>, Object> bindingsOf(JsonNode node) {
+		expunge();
+		ConcurrentMap<Class<?>, Object> result = bindings.get(new NodeKey(node, null));
+		if(result == null) {
+			result = new ConcurrentHashMap<>();
+			ConcurrentMap<Class<?>, Object> prev = bindings.putIfAbsent(new NodeKey(node, cleared),
+					result);
+			if(prev != null) {
+				result = prev;
+			}
+		}
+		return result;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private void expunge() {
+		for(Reference<?> ref = cleared.poll(); ref != null; ref = cleared.poll()) {
+			bindings.remove(ref);
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner class for weak identity keys
+
+	/*
+	 * The hash code is taken while the node is alive, so that a cleared key can still be found and
+	 * removed. A cleared key is only equal to itself.
+	 */
+
+	private static final class NodeKey extends WeakReference<JsonNode> {
+
+		private final int hash;
+
+		NodeKey(JsonNode node, ReferenceQueue<JsonNode> queue) {
+			super(node, queue);
+			hash = System.identityHashCode(node);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if(other == this) {
+				return true;
+			}
+			if(!(other instanceof NodeKey)) {
+				return false;
+			}
+			JsonNode node = get();
+			return node != null && node == ((NodeKey) other).get();
+		}
+	}
+}
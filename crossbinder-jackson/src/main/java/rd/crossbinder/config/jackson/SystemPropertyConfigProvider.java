@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Provides configuration values from system properties. A path maps to the property of the same
+ * name after an optional prefix, so that with the prefix <code>app.</code> the path
+ * <code>server.port</code> is read from <code>-Dapp.server.port=...</code>. Properties are captured
+ * when the provider is created. Only leaf values are provided.
+ *
+ * @author randondiesel
+ *
+ */
+
+public class SystemPropertyConfigProvider extends TextConfigProvider {
+
+	private final String prefix;
+
+	public SystemPropertyConfigProvider() {
+		this("");
+	}
+
+	public SystemPropertyConfigProvider(String prefix) {
+		this(prefix, System.getProperties());
+	}
+
+	public SystemPropertyConfigProvider(String prefix, Properties properties) {
+		super(copyOf(properties));
+		this.prefix = prefix;
+	}
+
+	@Override
+	String nameOf(String path) {
+		return prefix.isEmpty() ? path : prefix + path;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static Map<String, String> copyOf(Properties properties) {
+		Map<String, String> result = new HashMap<>();
+		for(String name : properties.stringPropertyNames()) {
+			result.put(name, properties.getProperty(name));
+		}
+		return result;
+	}
+}
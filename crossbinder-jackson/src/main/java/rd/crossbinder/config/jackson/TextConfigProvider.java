@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import rd.crossbinder.hod.ConfigurationProvider;
+
+/**
+ * Base class for providers whose values are plain strings, keyed by a name derived from the
+ * configuration path. The strings are captured once, when the provider is created. A value
+ * requested as any type other than a string is parsed as a YAML scalar or flow collection, so
+ * that <code>8080</code>, <code>true</code> and <code>[a, b]</code> bind to numbers, booleans and
+ * lists. Parsed values are kept for later lookups.
+ *
+ * @author randondiesel
+ *
+ */
+
+abstract class TextConfigProvider implements ConfigurationProvider {
+
+	private static final Logger LOGGER = Logger.getLogger(TextConfigProvider.class.getName());
+
+	private static final Object UNCONVERTIBLE = new Object();
+
+	private final Map<String, String>           values;
+	private final ConcurrentMap<String, String> names;
+
+	private final ConcurrentMap<Class<?>, ConcurrentMap<String, Object>> conversions;
+
+	TextConfigProvider(Map<String, String> values) {
+		this.values = Collections.unmodifiableMap(values);
+		names = new ConcurrentHashMap<>();
+		conversions = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * @return the name under which the value for the given configuration path is kept
+	 */
+
+	abstract String nameOf(String path);
+
+	public LookupResult lookup(String path) {
+		String text = values.get(nameFor(path));
+		if(text == null) {
+			return LookupResult.missingAtLastSegment(path);
+		}
+		return LookupResult.found(text);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Methods of interface ConfigurationProvider
+
+	@Override
+	public boolean contains(String path) {
+		return values.containsKey(nameFor(path));
+	}
+
+	@Override
+	public Object getValue(String path, Class<?> type) {
+		String text = values.get(nameFor(path));
+		if(text == null) {
+			return null;
+		}
+		if(type.isInstance(text)) {
+			return text;
+		}
+		ConcurrentMap<String, Object> converted =
+				conversions.computeIfAbsent(type, key -> new ConcurrentHashMap<>());
+		Object value = converted.get(text);
+		if(value == null) {
+			value = convert(path, text, type);
+			converted.putIfAbsent(text, value);
+		}
+		return (value == UNCONVERTIBLE) ? null : value;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private String nameFor(String path) {
+		String name = names.get(path);
+		if(name == null) {
+			// only names that have a value are kept, since the paths requested are not bounded
+			name = nameOf(path);
+			if(values.containsKey(name)) {
+				names.putIfAbsent(path, name);
+			}
+		}
+		return name;
+	}
+
+	private Object convert(String path, String text, Class<?> type) {
+		try {
+			Object value = ConfigFormat.YAML.reader().forType(type).readValue(text);
+			if(value != null) {
+				return value;
+			}
+		}
+		catch(IOException exep) {
+			LOGGER.log(Level.FINE, String.format("configuration %s is not a %s", path, type.getName()),
+					exep);
+		}
+		return UNCONVERTIBLE;
+	}
+}
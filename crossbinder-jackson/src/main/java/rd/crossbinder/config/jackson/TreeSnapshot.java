@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+/**
+ * A configuration held as a parsed document tree. A subtree is bound to a type only when it is
+ * first requested as that type, and the bound value is kept for later lookups. Paths are resolved
+ * against the property names used in the document.
+ *
+ * @author randondiesel
+ *
+ */
+
+final class TreeSnapshot extends ConfigSnapshot {
+
+	private static final Logger LOGGER = Logger.getLogger(TreeSnapshot.class.getName());
+
+	private static final Object UNBOUND = new Object();
+
+	private final JsonNode       tree;
+	private final ObjectReader   reader;
+	private final SharedBindings shared;
+
+	private final ConcurrentMap<String, LookupResult> lookups;
+	private final ConcurrentMap<String, ConcurrentMap<Class<?>, Object>> bindings;
+
+	TreeSnapshot(JsonNode tree, ObjectReader reader) {
+		this(tree, reader, null);
+	}
+
+	/**
+	 * @param shared if not <code>null</code>, values bound from a node are kept with the node
+	 * instance, for any other snapshot whose tree contains the same node
+	 */
+
+	TreeSnapshot(JsonNode tree, ObjectReader reader, SharedBindings shared) {
+		this.tree = (tree == null) ? MissingNode.getInstance() : tree;
+		this.reader = reader;
+		this.shared = shared;
+		lookups = new ConcurrentHashMap<>();
+		bindings = new ConcurrentHashMap<>();
+	}
+
+	@Override
+	LookupResult lookup(String path) {
+		// only paths found in the tree are kept, since the paths requested are not bounded by it
+		LookupResult result = lookups.get(path);
+		if(result == null) {
+			result = findNode(path);
+			if(result.isFound()) {
+				LookupResult prev = lookups.putIfAbsent(path, result);
+				if(prev != null) {
+					result = prev;
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	LookupResult lookup(String path, Class<?> type) {
+		LookupResult found = lookup(path);
+		if(!found.isFound()) {
+			return found;
+		}
+		if(type.isPrimitive()) {
+			// as in a bound configuration, no value is an instance of a primitive type
+			return LookupResult.missingAtLastSegment(path);
+		}
+		JsonNode node = (JsonNode) found.getValue();
+		if(JsonNode.class.isAssignableFrom(type)) {
+			// a node requested as a node is not bound, and is not kept among the bound values
+			return type.isInstance(node) ? found : LookupResult.missingAtLastSegment(path);
+		}
+		ConcurrentMap<Class<?>, Object> bound = bindingsOf(path, node);
+		Object value = bound.get(type);
+		if(value == null) {
+			value = bind(path, node, type);
+			Object prev = bound.putIfAbsent(type, value);
+			if(prev != null) {
+				value = prev;
+			}
+		}
+		if(value == UNBOUND) {
+			return LookupResult.missingAtLastSegment(path);
+		}
+		return LookupResult.found(value);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private ConcurrentMap<Class<?>, Object> bindingsOf(String path, JsonNode node) {
+		ConcurrentMap<Class<?>, Object> bound = bindings.get(path);
+		if(bound == null) {
+			bound = (shared == null) ? new ConcurrentHashMap<>() : shared.bindingsOf(node);
+			ConcurrentMap<Class<?>, Object> prev = bindings.putIfAbsent(path, bound);
+			if(prev != null) {
+				bound = prev;
+			}
+		}
+		return bound;
+	}
+
+	private LookupResult findNode(String path) {
+		JsonNode node = tree;
+		String[] segments = path.split("\\.");
+		for(int i=0; i<segments.length; i++) {
+			node = node.path(segments[i]);
+			if(node.isMissingNode() || node.isNull()) {
+				return LookupResult.missing(path, i);
+			}
+		}
+		return LookupResult.found(node);
+	}
+
+	private Object bind(String path, JsonNode node, Class<?> type) {
+		Object value = null;
+		try {
+			value = reader.forType(type).readValue(node);
+		}
+		catch(IOException exep) {
+			LOGGER.log(Level.FINE, String.format("configuration %s is not a %s", path, type.getName()), exep);
+		}
+		return (value == null) ? UNBOUND : value;
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.KeyDeserializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.deser.std.NumberDeserializers;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.NumericNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+/**
+ * Replaces scalar values read while loading a single configuration with an equal value read
+ * earlier, so that repeated strings and numbers are retained only once. Values bound to classes
+ * are deduplicated through the deserializers of {@link #MODULE}, which find the deduplicator of the
+ * load among the attributes of the reader. Document trees are deduplicated through the node
+ * factory of the deduplicator.
+ *
+ * @author randondiesel
+ *
+ */
+
+final class ValueDeduplicator {
+
+	static final Module MODULE = createModule();
+
+	private final ConcurrentMap<Object, Object> canonical;
+	private final LongAdder                     values;
+	private final LongAdder                     duplicates;
+	private final LongAdder                     bytesSaved;
+
+	ValueDeduplicator() {
+		canonical = new ConcurrentHashMap<>();
+		values = new LongAdder();
+		duplicates = new LongAdder();
+		bytesSaved = new LongAdder();
+	}
+
+	/**
+	 * @return a reader that deduplicates the values it binds, derived from a reader of a mapper
+	 * that has {@link #MODULE} registered
+	 */
+
+	ObjectReader bindingReader(ObjectReader reader) {
+		return reader.withAttribute(ValueDeduplicator.class, this);
+	}
+
+	/**
+	 * @return a reader that deduplicates the scalar nodes of the trees it reads
+	 */
+
+	ObjectReader treeReader(ObjectReader reader) {
+		return reader.with(new CanonicalNodeFactory());
+	}
+
+	/**
+	 * Releases the values kept for deduplication. Values read afterwards are no longer replaced.
+	 *
+	 * @return the outcome of deduplication up to now
+	 */
+
+	DeduplicationStats finish() {
+		canonical.clear();
+		return new DeduplicationStats(values.sum(), duplicates.sum(), bytesSaved.sum());
+	}
+
+	@SuppressWarnings("unchecked")
+	<T> T canonical(T value) {
+		if(value == null) {
+			return null;
+		}
+		values.increment();
+		Object prev = canonical.putIfAbsent(value, value);
+		if(prev == null) {
+			return value;
+		}
+		if(prev != value) {
+			duplicates.increment();
+			bytesSaved.add(sizeOf(value));
+		}
+		return (T) prev;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Module createModule() {
+		SimpleModule result = new SimpleModule("crossbinder-deduplication");
+		result.addDeserializer((Class) String.class,
+				new CanonicalDeserializer(String.class, StringDeserializer.instance));
+		for(Class type : new Class[] {Integer.class, Long.class, Double.class}) {
+			result.addDeserializer(type, new CanonicalDeserializer(type,
+					NumberDeserializers.find(type, type.getName())));
+		}
+		result.addKeyDeserializer(String.class, new CanonicalKeyDeserializer());
+		return result;
+	}
+
+	private static long sizeOf(Object value) {
+		if(value instanceof String) {
+			return 24 + align(16 + 2 * ((String) value).length());
+		}
+		if(value instanceof TextNode) {
+			return 16 + sizeOf(((TextNode) value).textValue());
+		}
+		if(value instanceof Integer || value instanceof IntNode) {
+			return 16;
+		}
+		return 24;
+	}
+
+	private static long align(long size) {
+		return (size + 7) & ~7L;
+	}
+
+	private static ValueDeduplicator of(DeserializationContext ctxt) {
+		return (ValueDeduplicator) ctxt.getAttribute(ValueDeduplicator.class);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner class for deduplicating bound values
+
+	private static final class CanonicalDeserializer extends StdScalarDeserializer<Object> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final JsonDeserializer<?> delegate;
+
+		CanonicalDeserializer(Class<?> type, JsonDeserializer<?> delegate) {
+			super(type);
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Object deserialize(JsonParser parser, DeserializationContext ctxt) throws IOException {
+			Object value = delegate.deserialize(parser, ctxt);
+			ValueDeduplicator dedup = of(ctxt);
+			return (dedup == null) ? value : dedup.canonical(value);
+		}
+
+		@Override
+		public Object getNullValue(DeserializationContext ctxt) throws JsonMappingException {
+			return delegate.getNullValue(ctxt);
+		}
+	}
+
+	private static final class CanonicalKeyDeserializer extends KeyDeserializer {
+
+		@Override
+		public Object deserializeKey(String key, DeserializationContext ctxt) {
+			ValueDeduplicator dedup = of(ctxt);
+			return (dedup == null) ? key : dedup.canonical(key);
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner class for deduplicating tree nodes
+
+	private final class CanonicalNodeFactory extends JsonNodeFactory {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public TextNode textNode(String text) {
+			return canonical(super.textNode(text));
+		}
+
+		@Override
+		public NumericNode numberNode(int value) {
+			return canonical(IntNode.valueOf(value));
+		}
+
+		@Override
+		public NumericNode numberNode(long value) {
+			return canonical(LongNode.valueOf(value));
+		}
+
+		@Override
+		public NumericNode numberNode(double value) {
+			return canonical(DoubleNode.valueOf(value));
+		}
+	}
+}
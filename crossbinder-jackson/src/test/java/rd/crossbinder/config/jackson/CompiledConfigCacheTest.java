@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class CompiledConfigCacheTest {
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	private CompiledConfigCache cache;
+	private Path                source;
+
+	@Before
+	public void setUp() throws Exception {
+		cache = new CompiledConfigCache();
+		source = tempDir.newFile("app.json").toPath();
+		write(source, "{'name':'source'}");
+	}
+
+	@Test
+	public void currentCompiledFormIsUsed() throws Exception {
+		writeCompiled(hashOf(source), "{'name':'compiled'}");
+		assertEquals("compiled", cache.load(source, ConfigFormat.JSON).path("name").asText());
+	}
+
+	@Test
+	public void staleCompiledFormIsRewritten() throws Exception {
+		writeCompiled("0000", "{'name':'compiled'}");
+		assertEquals("source", cache.load(source, ConfigFormat.JSON).path("name").asText());
+		assertCompiledFromSource();
+	}
+
+	@Test
+	public void changedSourceIsParsedAgain() throws Exception {
+		cache.compile(source, ConfigFormat.JSON);
+		write(source, "{'name':'changed'}");
+		assertEquals("changed", cache.load(source, ConfigFormat.JSON).path("name").asText());
+		assertCompiledFromSource();
+	}
+
+	@Test
+	public void corruptedCompiledFormIsRewritten() throws Exception {
+		Files.write(cache.compiledFileFor(source), new byte[] {':', ')', 0, 1, 2, 3});
+		assertEquals("source", cache.load(source, ConfigFormat.JSON).path("name").asText());
+		assertCompiledFromSource();
+	}
+
+	@Test
+	public void rewriteLeavesNoTemporaryFiles() throws Exception {
+		cache.load(source, ConfigFormat.JSON);
+		write(source, "{'name':'changed'}");
+		cache.load(source, ConfigFormat.JSON);
+
+		File[] files = tempDir.getRoot().listFiles();
+		assertEquals(2, files.length);
+		for(File file : files) {
+			assertFalse(file.getName(), file.getName().endsWith(".tmp"));
+		}
+		assertCompiledFromSource();
+	}
+
+	@Test
+	public void cborCompiledFormIsUsed() throws Exception {
+		CompiledConfigCache cborCache = new CompiledConfigCache(ConfigFormat.CBOR);
+		Path compiled = cborCache.compile(source, ConfigFormat.JSON);
+		assertTrue(compiled.getFileName().toString().endsWith(".cbor"));
+		assertEquals("source", cborCache.load(source, ConfigFormat.JSON).path("name").asText());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void xmlSourceIsRejected() throws Exception {
+		Path xml = tempDir.newFile("app.xml").toPath();
+		write(xml, "<config><tags>a</tags><tags>b</tags></config>");
+		cache.load(xml, ConfigFormat.XML);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void textFormatIsRejected() {
+		new CompiledConfigCache(ConfigFormat.JSON);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private void assertCompiledFromSource() throws IOException {
+		ObjectMapper mapper = ConfigFormat.SMILE.mapper();
+		JsonNode compiled = mapper.readTree(cache.compiledFileFor(source).toFile());
+		assertEquals(hashOf(source), compiled.path("sha256").asText());
+		assertEquals(ConfigFormat.JSON.mapper().readTree(source.toFile()),
+				compiled.path("document"));
+	}
+
+	private void writeCompiled(String hash, String document) throws IOException {
+		ObjectMapper mapper = ConfigFormat.SMILE.mapper();
+		JsonNode tree = ConfigFormat.JSON.mapper().readTree(document.replace('\'', '"'));
+		try(OutputStream output = Files.newOutputStream(cache.compiledFileFor(source));
+				JsonGenerator gen = mapper.getFactory().createGenerator(output)) {
+			gen.writeStartObject();
+			gen.writeStringField("sha256", hash);
+			gen.writeFieldName("document");
+			mapper.writeTree(gen, tree);
+			gen.writeEndObject();
+		}
+	}
+
+	private static void write(Path file, String text) throws IOException {
+		Files.write(file, text.replace('\'', '"').getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String hashOf(Path file) throws IOException {
+		try {
+			byte[] bytes = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file));
+			StringBuilder buffer = new StringBuilder(bytes.length * 2);
+			for(byte b : bytes) {
+				buffer.append(String.format("%02x", b));
+			}
+			return buffer.toString();
+		}
+		catch(NoSuchAlgorithmException exep) {
+			throw new IllegalStateException(exep);
+		}
+	}
+}
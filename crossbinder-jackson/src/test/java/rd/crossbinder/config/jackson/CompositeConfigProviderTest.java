@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class CompositeConfigProviderTest {
+
+	private EnvironmentConfigProvider    environment;
+	private SystemPropertyConfigProvider properties;
+	private JacksonConfigProvider        file;
+	private CompositeConfigProvider      composite;
+
+	@Before
+	public void setUp() throws Exception {
+		Map<String, String> variables = new HashMap<>();
+		variables.put("APP_SERVER_HTTP_PORT", "9090");
+		variables.put("SERVER_HOST", "unprefixed");
+		environment = new EnvironmentConfigProvider("APP_", variables);
+
+		Properties props = new Properties();
+		props.setProperty("app.server.http-port", "8081");
+		props.setProperty("app.server.host", "props.example.com");
+		properties = new SystemPropertyConfigProvider("app.", props);
+
+		file = new JacksonConfigProvider();
+		load(file, "{'server':{'host':'file.example.com','http-port':8080,'name':'main'}}");
+		composite = new CompositeConfigProvider(environment, properties, file);
+	}
+
+	@Test
+	public void firstLayerContainingPathWins() {
+		assertEquals(9090, composite.getValue("server.http-port", Integer.class));
+		assertSame(environment, composite.getOwner("server.http-port"));
+		assertEquals("props.example.com", composite.getValue("server.host", String.class));
+		assertSame(properties, composite.getOwner("server.host"));
+		assertEquals("main", composite.getValue("server.name", String.class));
+		assertSame(file, composite.getOwner("server.name"));
+	}
+
+	@Test
+	public void pathOfNoLayerIsMissing() {
+		assertFalse(composite.contains("server.tls"));
+		assertNull(composite.getValue("server.tls", String.class));
+		assertNull(composite.getOwner("server.tls"));
+	}
+
+	@Test
+	public void missingPathIsFoundOnceLayerHasIt() throws Exception {
+		assertFalse(composite.contains("client.timeout"));
+		load(file, "{'client':{'timeout':30}}");
+		assertTrue(composite.contains("client.timeout"));
+		assertEquals(30, composite.getValue("client.timeout", Integer.class));
+	}
+
+	@Test
+	public void ownersAreFoundAgainAfterClearing() throws Exception {
+		assertSame(file, composite.getOwner("server.name"));
+
+		load(file, "{'server':{'label':'main'}}");
+		assertSame(file, composite.getOwner("server.name"));
+		composite.clearOwners();
+		assertNull(composite.getOwner("server.name"));
+	}
+
+	@Test
+	public void environmentNamesAreDerivedFromPaths() {
+		assertEquals("APP_SERVER_HTTP_PORT", environment.nameOf("server.http-port"));
+		assertEquals("9090", environment.getValue("server.http-port", String.class));
+		assertEquals(9090L, environment.getValue("server.http-port", Long.class));
+		assertFalse(environment.contains("server.host"));
+		assertTrue(new EnvironmentConfigProvider("", environmentOf("SERVER_HOST", "h"))
+				.contains("server.host"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void layersAreRequired() {
+		new CompositeConfigProvider();
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static void load(JacksonConfigProvider provider, String json) throws Exception {
+		provider.loadJson(Root.class, new ByteArrayInputStream(json.replace('\'', '"')
+				.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static Map<String, String> environmentOf(String name, String value) {
+		Map<String, String> result = new HashMap<>();
+		result.put(name, value);
+		return result;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner classes for a sample configuration
+
+	public static class Root {
+
+		@JsonProperty
+		public Server server;
+
+		@JsonProperty
+		public Client client;
+	}
+
+	public static class Server {
+
+		@JsonProperty
+		public String host;
+
+		@JsonProperty("http-port")
+		public int httpPort;
+
+		@JsonProperty
+		public String name;
+
+		@JsonProperty
+		public String label;
+	}
+
+	public static class Client {
+
+		@JsonProperty
+		public int timeout;
+	}
+}
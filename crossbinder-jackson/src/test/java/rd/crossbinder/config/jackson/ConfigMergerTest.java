@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class ConfigMergerTest {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	@Test
+	public void mergeLaterLayerWins() throws IOException {
+		JsonNode result = ConfigMerger.merge(Arrays.asList(
+				tree("{'a':1,'b':{'c':2,'d':3}}"),
+				tree("{'b':{'c':20},'e':5}"),
+				tree("{'b':{'d':30}}")));
+		assertEquals(tree("{'a':1,'b':{'c':20,'d':30},'e':5}"), result);
+	}
+
+	@Test
+	public void mergeReplacesArraysAndNullsAsAWhole() throws IOException {
+		JsonNode result = ConfigMerger.merge(Arrays.asList(
+				tree("{'list':[1,2,3],'obj':{'x':1},'keep':{'y':2}}"),
+				tree("{'list':[4],'obj':null,'keep':'text'}")));
+		assertEquals(tree("{'list':[4],'obj':null,'keep':'text'}"), result);
+	}
+
+	@Test
+	public void mergeModifiesFirstLayerInPlace() throws IOException {
+		JsonNode base = tree("{'a':1}");
+		JsonNode result = ConfigMerger.merge(Arrays.asList(base, tree("{'b':2}")));
+		assertSame(base, result);
+		assertEquals(tree("{'a':1,'b':2}"), base);
+	}
+
+	@Test
+	public void mergeIgnoresMissingOverlay() throws IOException {
+		JsonNode base = tree("{'a':1}");
+		assertSame(base, ConfigMerger.merge(base, null));
+		assertSame(base, ConfigMerger.merge(base, MissingNode.getInstance()));
+	}
+
+	@Test
+	public void mergeOfNoLayersIsMissing() {
+		assertTrue(ConfigMerger.merge(Collections.<JsonNode>emptyList()).isMissingNode());
+	}
+
+	@Test
+	public void mergeSharedLeavesBothTreesUnchanged() throws IOException {
+		JsonNode base = tree("{'a':{'b':1,'c':2}}");
+		JsonNode overlay = tree("{'a':{'b':10},'d':3}");
+		JsonNode result = ConfigMerger.mergeShared(base, overlay);
+		assertEquals(tree("{'a':{'b':10,'c':2},'d':3}"), result);
+		assertEquals(tree("{'a':{'b':1,'c':2}}"), base);
+		assertEquals(tree("{'a':{'b':10},'d':3}"), overlay);
+	}
+
+	@Test
+	public void mergeSharedKeepsUnchangedSubtrees() throws IOException {
+		JsonNode base = tree("{'db':{'url':'x','pool':{'size':4}},'web':{'port':80}}");
+		JsonNode result = ConfigMerger.mergeShared(base, tree("{'web':{'port':8080}}"));
+		assertNotSame(base, result);
+		assertSame(base.get("db"), result.get("db"));
+		assertNotSame(base.get("web"), result.get("web"));
+		assertEquals(8080, result.path("web").path("port").intValue());
+	}
+
+	@Test
+	public void mergeSharedReturnsBaseWhenNothingChanges() throws IOException {
+		JsonNode base = tree("{'a':{'b':[1,2]},'c':'x'}");
+		assertSame(base, ConfigMerger.mergeShared(base, tree("{'a':{'b':[1,2]},'c':'x'}")));
+		assertSame(base, ConfigMerger.mergeShared(base, tree("{}")));
+		assertSame(base, ConfigMerger.mergeShared(base, null));
+	}
+
+	@Test
+	public void mergeSharedReplacesNonObjects() throws IOException {
+		JsonNode base = tree("{'a':[1,2],'b':{'c':1}}");
+		JsonNode result = ConfigMerger.mergeShared(base, tree("{'a':[3],'b':'text'}"));
+		assertEquals(tree("{'a':[3],'b':'text'}"), result);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static JsonNode tree(String json) throws IOException {
+		return MAPPER.readTree(json.replace('\'', '"'));
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class ConfigProfilesTest {
+
+	@Test
+	public void profileOverridesBaseAndSharesTheRest() throws Exception {
+		ConfigProfiles profiles = new ConfigProfiles(ConfigFormat.JSON,
+				json("{'server':{'port':8080},'client':{'name':'base'}}"));
+		profiles.addProfile("dev", null, ConfigFormat.JSON, json("{'server':{'port':9090}}"));
+
+		JacksonConfigProvider dev = profiles.getProvider("dev");
+		JacksonConfigProvider base = profiles.getBaseProvider();
+		assertEquals(9090, dev.getValue("server.port", Integer.class));
+		assertEquals(8080, base.getValue("server.port", Integer.class));
+		assertSame(base.getValue("client", Object.class), dev.getValue("client", Object.class));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void xmlBaseIsRejected() throws Exception {
+		new ConfigProfiles(ConfigFormat.XML, stream("<config><a>1</a><a>2</a></config>"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void xmlOverlayIsRejected() throws Exception {
+		new ConfigProfiles(ConfigFormat.JSON, json("{}")).addProfile("dev", null,
+				ConfigFormat.XML, stream("<config><a>1</a><a>2</a></config>"));
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static InputStream json(String text) {
+		return stream(text.replace('\'', '"'));
+	}
+
+	private static InputStream stream(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+}
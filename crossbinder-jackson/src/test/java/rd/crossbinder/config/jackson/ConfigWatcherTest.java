@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class ConfigWatcherTest {
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	@Test
+	public void eventsOfTheWatchedFileAreChanges() {
+		Path name = Paths.get("app.json");
+		assertTrue(ConfigWatcher.isChange(name, Arrays.asList(event(ENTRY_MODIFY, "other.json"),
+				event(ENTRY_MODIFY, "app.json"))));
+		assertFalse(ConfigWatcher.isChange(name, Arrays.asList(event(ENTRY_MODIFY, "other.json"))));
+		assertFalse(ConfigWatcher.isChange(name, Collections.<WatchEvent<?>>emptyList()));
+	}
+
+	@Test
+	public void lostEventsAreChanges() {
+		assertTrue(ConfigWatcher.isChange(Paths.get("app.json"),
+				Arrays.asList(event(OVERFLOW, null))));
+	}
+
+	@Test
+	public void burstOfWritesReloadsOnce() throws Exception {
+		Path file = tempDir.newFile("app.json").toPath();
+		AtomicInteger count = new AtomicInteger();
+		Semaphore reloaded = new Semaphore(0);
+		try(ConfigWatcher watcher = new ConfigWatcher(file, 500, () -> {
+			count.incrementAndGet();
+			reloaded.release();
+		})) {
+			for(int i=0; i<5; i++) {
+				write(file, "{\"version\":" + i + "}");
+				Thread.sleep(50);
+			}
+			assertTrue(reloaded.tryAcquire(10, TimeUnit.SECONDS));
+			assertFalse(reloaded.tryAcquire(1, TimeUnit.SECONDS));
+			assertEquals(1, count.get());
+		}
+	}
+
+	@Test
+	public void otherFilesAreIgnored() throws Exception {
+		Path file = tempDir.newFile("app.json").toPath();
+		Semaphore reloaded = new Semaphore(0);
+		try(ConfigWatcher watcher = new ConfigWatcher(file, 50, reloaded::release)) {
+			write(tempDir.newFile("other.json").toPath(), "{}");
+			assertFalse(reloaded.tryAcquire(1, TimeUnit.SECONDS));
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	static void write(Path file, String text) throws IOException {
+		Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static WatchEvent<?> event(WatchEvent.Kind<?> kind, String fileName) {
+		Path context = (fileName == null) ? null : Paths.get(fileName);
+		return new WatchEvent<Path>() {
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public Kind<Path> kind() {
+				return (Kind<Path>) kind;
+			}
+
+			@Override
+			public int count() {
+				return 1;
+			}
+
+			@Override
+			public Path context() {
+				return context;
+			}
+		};
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import rd.crossbinder.hod.ConfigurationProvider;
+import rd.crossbinder.hod.Injector;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class InjectionTrackerTest {
+
+	private Map<String, Object> values;
+	private InjectionTracker    tracker;
+
+	@Before
+	public void setUp() {
+		values = new HashMap<>();
+		values.put("a", "one");
+		values.put("b", "two");
+		tracker = new InjectionTracker(new MapProvider(values));
+	}
+
+	@Test
+	public void refreshInjectsOnlyAffectedInstances() {
+		Target first = new Target();
+		Target second = new Target();
+		tracker.inject(first, reading("a"));
+		tracker.inject(second, reading("b"));
+
+		values.put("b", "changed");
+		assertEquals(1, tracker.refresh());
+		assertEquals(1, first.count);
+		assertEquals(2, second.count);
+		assertEquals("changed", second.value);
+	}
+
+	@Test
+	public void refreshWithoutChangeInjectsNothing() {
+		Target target = new Target();
+		tracker.inject(target, reading("a"));
+		assertEquals(0, tracker.refresh());
+		assertEquals(1, target.count);
+	}
+
+	@Test
+	public void refreshRecordsTheNewReads() {
+		Target target = new Target();
+		tracker.inject(target, reading("a"));
+		values.put("a", "changed");
+		assertEquals(1, tracker.refresh());
+		assertEquals(0, tracker.refresh());
+		values.put("a", "again");
+		assertEquals(1, tracker.refresh());
+		assertEquals(3, target.count);
+	}
+
+	@Test
+	public void presenceChecksAreTracked() {
+		Target target = new Target();
+		tracker.inject(target, obj -> {
+			((Target) obj).count++;
+			tracker.contains("c");
+		});
+		values.put("c", "new");
+		assertEquals(1, tracker.refresh());
+		assertEquals(2, target.count);
+	}
+
+	@Test
+	public void lookupsOutsideInjectionAreNotTracked() {
+		Target target = new Target();
+		tracker.inject(target, reading("a"));
+		tracker.getValue("b", String.class);
+		values.put("b", "changed");
+		assertEquals(0, tracker.refresh());
+	}
+
+	@Test
+	public void failedReinjectionIsNotCounted() {
+		Target target = new Target();
+		tracker.inject(target, obj -> {
+			Target self = (Target) obj;
+			self.value = tracker.getValue("a", String.class);
+			if(self.count++ > 0) {
+				throw new IllegalStateException("injection failed");
+			}
+		});
+		values.put("a", "changed");
+		assertEquals(0, tracker.refresh());
+		assertEquals(2, target.count);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private Injector reading(String path) {
+		return obj -> {
+			Target target = (Target) obj;
+			target.count++;
+			target.value = tracker.getValue(path, String.class);
+		};
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner class for an injected instance
+
+	private static final class Target {
+
+		private int    count;
+		private Object value;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner class for a provider over a map
+
+	private static final class MapProvider implements ConfigurationProvider {
+
+		private final Map<String, Object> values;
+
+		MapProvider(Map<String, Object> values) {
+			this.values = values;
+		}
+
+		@Override
+		public boolean contains(String path) {
+			return values.containsKey(path);
+		}
+
+		@Override
+		public Object getValue(String path, Class<?> type) {
+			return values.get(path);
+		}
+	}
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class JacksonConfigProviderTest {
+
+	private static final Logger PROVIDER_LOGGER =
+			Logger.getLogger(JacksonConfigProvider.class.getName());
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	private Semaphore reloadFailed;
+	private Handler   failureHandler;
+
+	@Before
+	public void setUp() {
+		reloadFailed = new Semaphore(0);
+		failureHandler = new Handler() {
+
+			@Override
+			public void publish(LogRecord record) {
+				if(record.getLevel() == Level.WARNING) {
+					reloadFailed.release();
+				}
+			}
+
+			@Override
+			public void flush() {
+				//NOOP
+			}
+
+			@Override
+			public void close() {
+				//NOOP
+			}
+		};
+		PROVIDER_LOGGER.addHandler(failureHandler);
+	}
+
+	@After
+	public void tearDown() {
+		PROVIDER_LOGGER.removeHandler(failureHandler);
+	}
+
+	@Test
+	public void watchedFileIsReloaded() throws Exception {
+		Path file = tempDir.newFile("app.json").toPath();
+		ConfigWatcherTest.write(file, "{'name':'first'}".replace('\'', '"'));
+		JacksonConfigProvider provider = new JacksonConfigProvider();
+		provider.load(Root.class, new FileConfigSource(file));
+		Semaphore changed = new Semaphore(0);
+		provider.addChangeListener(changed::release);
+
+		try(Closeable watch = provider.watch(Root.class, file, ConfigFormat.JSON, 50)) {
+			ConfigWatcherTest.write(file, "{'name':'second'}".replace('\'', '"'));
+			assertTrue(changed.tryAcquire(10, TimeUnit.SECONDS));
+			assertEquals("second", provider.getValue("name", String.class));
+		}
+	}
+
+	@Test
+	public void parseErrorKeepsCurrentConfiguration() throws Exception {
+		Path file = tempDir.newFile("app.json").toPath();
+		ConfigWatcherTest.write(file, "{'name':'first'}".replace('\'', '"'));
+		JacksonConfigProvider provider = new JacksonConfigProvider();
+		provider.load(Root.class, new FileConfigSource(file));
+
+		try(Closeable watch = provider.watch(Root.class, file, ConfigFormat.JSON, 50)) {
+			ConfigWatcherTest.write(file, "{'name':".replace('\'', '"'));
+			assertTrue(reloadFailed.tryAcquire(10, TimeUnit.SECONDS));
+			assertEquals("first", provider.getValue("name", String.class));
+		}
+	}
+
+	@Test
+	public void reloadRepeatsLayeredLoad() throws Exception {
+		Path base = tempDir.newFile("base.json").toPath();
+		Path overlay = tempDir.newFile("overlay.json").toPath();
+		ConfigWatcherTest.write(base, "{'name':'base','other':'kept'}".replace('\'', '"'));
+		ConfigWatcherTest.write(overlay, "{'name':'first'}".replace('\'', '"'));
+		JacksonConfigProvider provider = new JacksonConfigProvider();
+		provider.loadLayers(Root.class, Arrays.asList(new FileConfigSource(base),
+				new FileConfigSource(overlay)));
+		Semaphore changed = new Semaphore(0);
+		provider.addChangeListener(changed::release);
+
+		try(Closeable watch = provider.watch(Root.class, overlay, ConfigFormat.JSON, 50)) {
+			ConfigWatcherTest.write(overlay, "{'name':'second'}".replace('\'', '"'));
+			assertTrue(changed.tryAcquire(10, TimeUnit.SECONDS));
+			assertEquals("second", provider.getValue("name", String.class));
+			assertEquals("kept", provider.getValue("other", String.class));
+		}
+	}
+
+	@Test
+	public void reloadAfterNewerLoadDoesNotRepeatOlderLoad() throws Exception {
+		Path base = tempDir.newFile("base.json").toPath();
+		Path overlay = tempDir.newFile("overlay.json").toPath();
+		ConfigWatcherTest.write(base, "{'name':'base','other':'layered'}".replace('\'', '"'));
+		ConfigWatcherTest.write(overlay, "{'name':'first'}".replace('\'', '"'));
+		JacksonConfigProvider provider = new JacksonConfigProvider();
+		provider.loadLayers(Root.class, Arrays.asList(new FileConfigSource(base),
+				new FileConfigSource(overlay)));
+		provider.loadJson(Root.class, new ByteArrayInputStream("{'name':'stream'}"
+				.replace('\'', '"').getBytes(StandardCharsets.UTF_8)));
+		Semaphore changed = new Semaphore(0);
+		provider.addChangeListener(changed::release);
+
+		try(Closeable watch = provider.watch(Root.class, overlay, ConfigFormat.JSON, 50)) {
+			ConfigWatcherTest.write(overlay, "{'name':'second'}".replace('\'', '"'));
+			assertTrue(changed.tryAcquire(10, TimeUnit.SECONDS));
+			assertEquals("second", provider.getValue("name", String.class));
+			assertEquals("none", provider.getValue("other", String.class));
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void configurationFromStreamsCannotBeWatched() throws Exception {
+		JacksonConfigProvider provider = new JacksonConfigProvider();
+		provider.loadJson(Root.class, Arrays.asList(new ByteArrayInputStream(
+				"{}".getBytes(StandardCharsets.UTF_8))));
+		provider.watch(Root.class, tempDir.newFile("app.json").toPath());
+	}
+
+	@Test
+	public void lazyConfigurationSeesOnlyTheDocument() throws Exception {
+		JacksonConfigProvider bound = new JacksonConfigProvider();
+		bound.loadJson(Root.class, json("{'name':'app'}"));
+		JacksonConfigProvider lazy = new JacksonConfigProvider().bindLazily();
+		lazy.loadJson(Root.class, json("{'name':'app'}"));
+
+		assertEquals("app", lazy.getValue("name", String.class));
+		assertEquals("none", bound.getValue("other", String.class));
+		assertTrue(bound.contains("other"));
+		assertEquals(null, lazy.getValue("other", String.class));
+		assertFalse(lazy.contains("other"));
+	}
+
+	@Test
+	public void boundXmlKeepsRepeatedElements() throws Exception {
+		JacksonConfigProvider provider = new JacksonConfigProvider();
+		provider.loadXml(Root.class, xml("<config><name>app</name><tags>a</tags><tags>b</tags>"
+				+ "</config>"));
+		assertEquals(Arrays.asList("a", "b"), provider.getValue("tags", List.class));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void lazyXmlIsRejected() throws Exception {
+		new JacksonConfigProvider().bindLazily().loadXml(Root.class, xml("<config/>"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void layeredXmlIsRejected() throws Exception {
+		Path base = tempDir.newFile("base.json").toPath();
+		Path overlay = tempDir.newFile("overlay.xml").toPath();
+		ConfigWatcherTest.write(base, "{}");
+		ConfigWatcherTest.write(overlay, "<config><tags>a</tags><tags>b</tags></config>");
+		new JacksonConfigProvider().loadLayers(Root.class, Arrays.asList(
+				new FileConfigSource(base), new FileConfigSource(overlay)));
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static ByteArrayInputStream xml(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static ByteArrayInputStream json(String text) {
+		return new ByteArrayInputStream(text.replace('\'', '"').getBytes(StandardCharsets.UTF_8));
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner class for a sample configuration
+
+	public static class Root {
+
+		@JsonProperty
+		public String name;
+
+		@JsonProperty
+		public String other = "none";
+
+		@JsonProperty
+		public List<String> tags;
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class PathAccessorTest {
+
+	@Test
+	public void foundValues() {
+		Root root = new Root();
+		assertEquals("localhost", PathAccessor.lookup(root, "server.host").getValue());
+		assertEquals(8080, PathAccessor.lookup(root, "server.port").getValue());
+		// a second lookup goes through the cached chain
+		assertEquals("localhost", PathAccessor.lookup(root, "server.host").getValue());
+	}
+
+	@Test
+	public void missingValuesReportTheFailedSegment() {
+		Root root = new Root();
+		assertEquals(1, PathAccessor.lookup(root, "server.nowhere").getFailedSegmentIndex());
+		assertEquals(0, PathAccessor.lookup(root, "nowhere.host").getFailedSegmentIndex());
+		assertEquals(0, PathAccessor.lookup(null, "server.host").getFailedSegmentIndex());
+
+		root.server = null;
+		assertEquals(0, PathAccessor.lookup(root, "server.host").getFailedSegmentIndex());
+	}
+
+	@Test
+	public void pathMissingAtFirstLookupIsFoundLater() {
+		Root root = new Root();
+		root.server.host = null;
+		assertFalse(PathAccessor.lookup(root, "server.host").isFound());
+		root.server.host = "example.org";
+		assertEquals("example.org", PathAccessor.lookup(root, "server.host").getValue());
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner classes for a sample configuration
+
+	public static class Root {
+
+		@JsonProperty
+		public Server server = new Server();
+	}
+
+	public static class Server {
+
+		@JsonProperty
+		public String host = "localhost";
+
+		@JsonProperty
+		public int port = 8080;
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class ScalarValueTest {
+
+	private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+	@Test
+	public void integralNumbers() {
+		ScalarValue value = ScalarValue.of(42);
+		assertEquals(42, value.intValue(-1));
+		assertEquals(42L, value.longValue(-1L));
+		assertEquals(42.0, value.doubleValue(-1.0), 0.0);
+		assertFalse(value.booleanValue(false));
+	}
+
+	@Test
+	public void longOutsideIntRange() {
+		ScalarValue value = ScalarValue.of(Long.MAX_VALUE);
+		assertEquals(-1, value.intValue(-1));
+		assertEquals(Long.MAX_VALUE, value.longValue(-1L));
+	}
+
+	@Test
+	public void fractionalNumbers() {
+		ScalarValue value = ScalarValue.of(2.5);
+		assertEquals(-1, value.intValue(-1));
+		assertEquals(-1L, value.longValue(-1L));
+		assertEquals(2.5, value.doubleValue(-1.0), 0.0);
+
+		value = ScalarValue.of(new BigDecimal("3.0"));
+		assertEquals(3, value.intValue(-1));
+		assertEquals(3L, value.longValue(-1L));
+	}
+
+	@Test
+	public void nonFiniteNumbersAreNotIntegral() {
+		ScalarValue value = ScalarValue.of(Double.POSITIVE_INFINITY);
+		assertEquals(-1L, value.longValue(-1L));
+		assertEquals(Double.POSITIVE_INFINITY, value.doubleValue(-1.0), 0.0);
+		assertEquals(-1L, ScalarValue.of(Double.NaN).longValue(-1L));
+	}
+
+	@Test
+	public void booleans() {
+		assertTrue(ScalarValue.of(Boolean.TRUE).booleanValue(false));
+		assertFalse(ScalarValue.of(Boolean.FALSE).booleanValue(true));
+		assertEquals(-1, ScalarValue.of(Boolean.TRUE).intValue(-1));
+	}
+
+	@Test
+	public void text() {
+		assertEquals(17, ScalarValue.of(" 17 ").intValue(-1));
+		assertEquals(1.5, ScalarValue.of("1.5").doubleValue(-1.0), 0.0);
+		assertEquals(-1L, ScalarValue.of("1.5").longValue(-1L));
+		assertTrue(ScalarValue.of("TRUE").booleanValue(false));
+		assertFalse(ScalarValue.of("false").booleanValue(true));
+		assertTrue(ScalarValue.of("yes").booleanValue(true));
+		assertEquals(-1, ScalarValue.of("yes").intValue(-1));
+	}
+
+	@Test
+	public void jsonNodes() {
+		assertEquals(7, ScalarValue.of(NODES.numberNode(7)).intValue(-1));
+		assertEquals(0.25, ScalarValue.of(NODES.numberNode(0.25)).doubleValue(-1.0), 0.0);
+		assertTrue(ScalarValue.of(NODES.booleanNode(true)).booleanValue(false));
+		assertEquals(9L, ScalarValue.of(NODES.textNode("9")).longValue(-1L));
+	}
+
+	@Test
+	public void otherValuesUseTheDefault() {
+		for(Object value : new Object[] {null, NODES.objectNode(), NODES.arrayNode(),
+				NODES.nullNode(), Collections.emptyList()}) {
+			ScalarValue scalar = ScalarValue.of(value);
+			assertEquals(-1, scalar.intValue(-1));
+			assertEquals(-1L, scalar.longValue(-1L));
+			assertEquals(-1.0, scalar.doubleValue(-1.0), 0.0);
+			assertTrue(scalar.booleanValue(true));
+		}
+	}
+}
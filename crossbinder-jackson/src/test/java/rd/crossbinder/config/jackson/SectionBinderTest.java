@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class SectionBinderTest {
+
+	private static final String DOCUMENT = "{'skip':{'deep':[1,{'x':[2,3]}]},"
+			+ "'server':{'ports':[80,443,{'name':'admin','port':8443}],'host':'example.org'},"
+			+ "'a/b':{'c~d':'escaped'},'empty':null,'list':[]}";
+
+	@Test
+	public void pointerAndDottedPaths() throws IOException {
+		assertEquals("example.org", bind("/server/host", String.class));
+		assertEquals("example.org", bind("server.host", String.class));
+	}
+
+	@Test
+	public void arrayIndices() throws IOException {
+		assertEquals(Integer.valueOf(443), bind("/server/ports/1", Integer.class));
+		assertEquals(Integer.valueOf(8443), bind("server.ports.2.port", Integer.class));
+		assertEquals(Arrays.asList(2, 3), bind("/skip/deep/1/x", List.class));
+	}
+
+	@Test
+	public void arraySegmentsThatAreNotIndices() throws IOException {
+		assertNull(bind("/server/ports/3", Integer.class));
+		assertNull(bind("/server/ports/x", Integer.class));
+		assertNull(bind("/server/ports/-1", Integer.class));
+		assertNull(bind("/server/ports/", Integer.class));
+		assertNull(bind("/list/0", Integer.class));
+	}
+
+	@Test
+	public void pointerEscapes() throws IOException {
+		assertEquals("escaped", bind("/a~1b/c~0d", String.class));
+		assertNull(bind("/a/b/c~d", String.class));
+	}
+
+	@Test
+	public void missingAndNullSections() throws IOException {
+		assertNull(bind("/nowhere", Map.class));
+		assertNull(bind("/server/host/deeper", String.class));
+		assertNull(bind("/empty", Map.class));
+		assertNull(bind("/empty/below", Map.class));
+		assertNull(SectionBinder.bind(input(""), ConfigFormat.JSON, "/server", Map.class));
+	}
+
+	@Test
+	public void wholeDocumentAndSections() throws IOException {
+		Map<?, ?> root = bind("", Map.class);
+		assertEquals(Collections.singletonMap("c~d", "escaped"), root.get("a/b"));
+		Map<?, ?> admin = bind("/server/ports/2", Map.class);
+		assertEquals("admin", admin.get("name"));
+	}
+
+	@Test
+	public void yamlDocument() throws IOException {
+		String yaml = "skip:\n  - 1\nserver:\n  ports: [80, 443]\n  host: example.org\n";
+		assertEquals(Integer.valueOf(443), SectionBinder.bind(input(yaml), ConfigFormat.YAML,
+				"server.ports.1", Integer.class));
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static <T> T bind(String prefix, Class<T> type) throws IOException {
+		return SectionBinder.bind(input(DOCUMENT.replace('\'', '"')), ConfigFormat.JSON, prefix,
+				type);
+	}
+
+	private static ByteArrayInputStream input(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+}
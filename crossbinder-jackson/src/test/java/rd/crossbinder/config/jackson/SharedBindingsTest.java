@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class SharedBindingsTest {
+
+	@Test
+	public void bindingsAreKeyedByNodeIdentity() {
+		SharedBindings shared = new SharedBindings();
+		JsonNode node = JsonNodeFactory.instance.objectNode().put("a", 1);
+		JsonNode equalNode = node.deepCopy();
+		assertEquals(node, equalNode);
+
+		shared.bindingsOf(node).put(String.class, "bound");
+		assertSame(shared.bindingsOf(node), shared.bindingsOf(node));
+		assertEquals("bound", shared.bindingsOf(node).get(String.class));
+		assertNotSame(shared.bindingsOf(node), shared.bindingsOf(equalNode));
+		assertEquals(0, shared.bindingsOf(equalNode).size());
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class TreeSnapshotTest {
+
+	private TreeSnapshot snapshot;
+
+	@Before
+	public void setUp() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		JsonNode tree = mapper.readTree("{'server':{'name':'main','port':8080}}"
+				.replace('\'', '"'));
+		snapshot = new TreeSnapshot(tree, mapper.reader());
+	}
+
+	@Test
+	public void objectIsBoundNotReturnedAsNode() {
+		LookupResult result = snapshot.lookup("server", Object.class);
+		assertTrue(result.isFound());
+		assertTrue(result.getValue() instanceof Map);
+		assertEquals("main", snapshot.lookup("server.name", Object.class).getValue());
+	}
+
+	@Test
+	public void nodeTypesReturnTheNode() {
+		assertTrue(snapshot.lookup("server", JsonNode.class).getValue() instanceof ObjectNode);
+		assertTrue(snapshot.lookup("server.name", TextNode.class).isFound());
+
+		LookupResult result = snapshot.lookup("server.name", ObjectNode.class);
+		assertFalse(result.isFound());
+		assertEquals(1, result.getFailedSegmentIndex());
+	}
+
+	@Test
+	public void primitiveTypesAreMissingAsInBoundMode() {
+		LookupResult result = snapshot.lookup("server.port", int.class);
+		assertFalse(result.isFound());
+		assertEquals(1, result.getFailedSegmentIndex());
+		assertEquals(Integer.valueOf(8080), snapshot.lookup("server.port", Integer.class)
+				.getValue());
+	}
+
+	@Test
+	public void missingPathReportsFailedSegment() {
+		LookupResult result = snapshot.lookup("server.tls.enabled", Boolean.class);
+		assertFalse(result.isFound());
+		assertEquals(1, result.getFailedSegmentIndex());
+		assertFalse(snapshot.lookup("client", String.class).isFound());
+	}
+
+	@Test
+	public void valueOfAnotherTypeIsMissingAtLastSegment() {
+		LookupResult result = snapshot.lookup("server.name", Integer.class);
+		assertFalse(result.isFound());
+		assertEquals(1, result.getFailedSegmentIndex());
+	}
+
+	@Test
+	public void boundValueIsReused() {
+		Object first = snapshot.lookup("server", Map.class).getValue();
+		assertSame(first, snapshot.lookup("server", Map.class).getValue());
+	}
+}
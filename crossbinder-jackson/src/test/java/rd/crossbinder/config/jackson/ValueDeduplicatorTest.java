@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.config.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class ValueDeduplicatorTest {
+
+	@Test
+	public void equalValuesShareTheFirstInstance() {
+		ValueDeduplicator dedup = new ValueDeduplicator();
+		String first = new String("queue");
+		String second = new String("queue");
+		assertSame(first, dedup.canonical(first));
+		assertSame(first, dedup.canonical(second));
+		assertSame(first, dedup.canonical(first));
+		assertEquals(Long.valueOf(7L), dedup.canonical(Long.valueOf(7L)));
+		assertNull(dedup.canonical(null));
+
+		DeduplicationStats stats = dedup.finish();
+		assertEquals(4L, stats.getValueCount());
+		assertEquals(1L, stats.getDuplicateCount());
+		assertEquals(24L + 32L, stats.getBytesSaved());
+	}
+
+	@Test
+	public void finishedDeduplicatorKeepsNoValues() {
+		ValueDeduplicator dedup = new ValueDeduplicator();
+		String first = new String("host");
+		dedup.canonical(first);
+		dedup.finish();
+		String second = new String("host");
+		assertSame(second, dedup.canonical(second));
+	}
+
+	@Test
+	public void boundValuesAreDeduplicated() throws Exception {
+		JacksonConfigProvider provider = new JacksonConfigProvider().deduplicateValues();
+		provider.loadJson(Root.class, json("{'hosts':['db.example.com','db.example.com'],"
+				+ "'ports':{'db.example.com':5432},'retries':[1000,1000]}"));
+
+		List<String> hosts = castList(provider.getValue("hosts", List.class));
+		assertSame(hosts.get(0), hosts.get(1));
+		assertSame(hosts.get(0), keyOf(provider.getValue("ports", Map.class)));
+		List<?> retries = (List<?>) provider.getValue("retries", List.class);
+		assertSame(retries.get(0), retries.get(1));
+
+		DeduplicationStats stats = provider.getDeduplicationStats();
+		assertEquals(6L, stats.getValueCount());
+		assertEquals(3L, stats.getDuplicateCount());
+	}
+
+	@Test
+	public void treeNodesAreDeduplicated() throws Exception {
+		JacksonConfigProvider provider = new JacksonConfigProvider().bindLazily()
+				.deduplicateValues();
+		provider.loadJson(Root.class, json("{'primary':{'host':'db.example.com'},"
+				+ "'replica':{'host':'db.example.com'}}"));
+
+		JsonNode primary = (JsonNode) provider.getValue("primary.host", JsonNode.class);
+		JsonNode replica = (JsonNode) provider.getValue("replica.host", JsonNode.class);
+		assertSame(primary, replica);
+		assertEquals(1L, provider.getDeduplicationStats().getDuplicateCount());
+	}
+
+	@Test
+	public void loadWithoutDeduplicationHasNoStats() throws Exception {
+		JacksonConfigProvider provider = new JacksonConfigProvider();
+		provider.loadJson(Root.class, json("{'hosts':['a','a']}"));
+		assertNull(provider.getDeduplicationStats());
+		List<String> hosts = castList(provider.getValue("hosts", List.class));
+		assertNotSame(hosts.get(0), hosts.get(1));
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static ByteArrayInputStream json(String text) {
+		return new ByteArrayInputStream(text.replace('\'', '"').getBytes(StandardCharsets.UTF_8));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<String> castList(Object value) {
+		return (List<String>) value;
+	}
+
+	private static Object keyOf(Object map) {
+		return ((Map<?, ?>) map).keySet().iterator().next();
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner class for a sample configuration
+
+	public static class Root {
+
+		@JsonProperty
+		public List<String> hosts;
+
+		@JsonProperty
+		public Map<String, Integer> ports;
+
+		@JsonProperty
+		public List<Integer> retries;
+	}
+}
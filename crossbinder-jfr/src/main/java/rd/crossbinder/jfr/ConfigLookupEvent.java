@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rd.crossbinder.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A configuration lookup made through a configuration provider.
+ *
+ * @author randondiesel
+ *
+ */
+
+@Name("rd.crossbinder.ConfigLookup")
+@Label("Configuration Lookup")
+@Category("Crossbinder")
+@Description("Lookup of a configuration value by path")
+@StackTrace(false)
+class ConfigLookupEvent extends Event {
+
+	@Label("Provider")
+	Class<?> provider;
+
+	@Label("Path")
+	String path;
+
+	@Label("Found")
+	boolean found;
+}
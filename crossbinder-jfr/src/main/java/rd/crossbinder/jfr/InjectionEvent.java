@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rd.crossbinder.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Injection of configuration values and components into an object.
+ *
+ * @author randondiesel
+ *
+ */
+
+@Name("rd.crossbinder.Injection")
+@Label("Injection")
+@Category("Crossbinder")
+@Description("Injection into a resource, servlet, filter or other target")
+class InjectionEvent extends Event {
+
+	@Label("Target Class")
+	Class<?> targetType;
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rd.crossbinder.jfr;
+
+import jdk.jfr.EventType;
+import rd.crossbinder.config.jackson.EventTracer;
+
+/**
+ * Emits Flight Recorder events for configuration lookups, injections and component
+ * registrations. While an event type is not enabled in a running recording, beginning an event
+ * of that type only checks a flag and allocates nothing.
+ *
+ * @author randondiesel
+ *
+ */
+
+public class JfrEventTracer implements EventTracer {
+
+	private static final EventType LOOKUP       = EventType.getEventType(ConfigLookupEvent.class);
+	private static final EventType INJECTION    = EventType.getEventType(InjectionEvent.class);
+	private static final EventType REGISTRATION = EventType.getEventType(RegistrationEvent.class);
+
+	@Override
+	public Object beginLookup() {
+		if(!LOOKUP.isEnabled()) {
+			return null;
+		}
+		ConfigLookupEvent event = new ConfigLookupEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endLookup(Object token, Class<?> provider, String path, boolean found) {
+		ConfigLookupEvent event = (ConfigLookupEvent) token;
+		event.end();
+		if(event.shouldCommit()) {
+			event.provider = provider;
+			event.path = path;
+			event.found = found;
+			event.commit();
+		}
+	}
+
+	@Override
+	public Object beginInjection() {
+		if(!INJECTION.isEnabled()) {
+			return null;
+		}
+		InjectionEvent event = new InjectionEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endInjection(Object token, Class<?> targetType) {
+		InjectionEvent event = (InjectionEvent) token;
+		event.end();
+		if(event.shouldCommit()) {
+			event.targetType = targetType;
+			event.commit();
+		}
+	}
+
+	@Override
+	public Object beginRegistration() {
+		if(!REGISTRATION.isEnabled()) {
+			return null;
+		}
+		RegistrationEvent event = new RegistrationEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endRegistration(Object token, String kind, Class<?> componentType) {
+		RegistrationEvent event = (RegistrationEvent) token;
+		event.end();
+		if(event.shouldCommit()) {
+			event.kind = kind;
+			event.componentType = componentType;
+			event.commit();
+		}
+	}
+}
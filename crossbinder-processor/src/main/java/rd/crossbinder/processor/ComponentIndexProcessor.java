@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes <code>META-INF/crossbinder/components.idx</code>, listing every concrete class annotated
+ * with <code>@Path</code>, <code>@WebServlet</code> or <code>@WebFilter</code>, as well as every
+ * concrete class with a method annotated with <code>@Path</code>. Each line of the index holds the
+ * name of the annotation and the binary name of the class, separated by a space. Lines are sorted,
+ * so that the index only changes when the components change.
+ * <p>
+ * When only some sources are compiled, as in an incremental build, the entries of the previous
+ * index are kept for classes that still carry the annotation.
+ *
+ * @author randondiesel
+ *
+ */
+
+@SupportedAnnotationTypes({ComponentIndexProcessor.PATH, ComponentIndexProcessor.WEB_SERVLET,
+		ComponentIndexProcessor.WEB_FILTER})
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+	static final String PATH        = "javax.ws.rs.Path";
+	static final String WEB_SERVLET = "javax.servlet.annotation.WebServlet";
+	static final String WEB_FILTER  = "javax.servlet.annotation.WebFilter";
+
+	static final String INDEX_FILE = "META-INF/crossbinder/components.idx";
+
+	private final Set<String> entries = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for(TypeElement annotation : annotations) {
+			String annName = annotation.getQualifiedName().toString();
+			for(Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				Element type = (element.getKind() == ElementKind.METHOD)
+						? element.getEnclosingElement() : element;
+				if(isComponent(type)) {
+					entries.add(annName + " " + binaryName((TypeElement) type));
+				}
+			}
+		}
+		if(roundEnv.processingOver() && !entries.isEmpty()) {
+			readPrevious();
+			write();
+		}
+		return false;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private boolean isComponent(Element type) {
+		return type.getKind() == ElementKind.CLASS
+				&& !type.getModifiers().contains(Modifier.ABSTRACT);
+	}
+
+	private String binaryName(TypeElement type) {
+		return processingEnv.getElementUtils().getBinaryName(type).toString();
+	}
+
+	private void readPrevious() {
+		FileObject file = null;
+		try {
+			file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+					INDEX_FILE);
+		}
+		catch(IOException | IllegalArgumentException exep) {
+			return;
+		}
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(file.openInputStream(),
+				StandardCharsets.UTF_8))) {
+			String line = null;
+			while((line = reader.readLine()) != null) {
+				line = line.trim();
+				int sep = line.indexOf(' ');
+				if(sep > 0 && !line.startsWith("#") && isStillAnnotated(line.substring(sep + 1),
+						line.substring(0, sep))) {
+					entries.add(line);
+				}
+			}
+		}
+		catch(IOException exep) {
+			//NOOP: there is no previous index
+		}
+	}
+
+	private boolean isStillAnnotated(String className, String annName) {
+		String canonicalName = className.replace('$', '.');
+		TypeElement type = processingEnv.getElementUtils().getTypeElement(canonicalName);
+		if(type == null || !isComponent(type)) {
+			return false;
+		}
+		if(hasAnnotation(type, annName)) {
+			return true;
+		}
+		if(PATH.equals(annName)) {
+			for(Element method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+				if(hasAnnotation(method, annName)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean hasAnnotation(Element element, String annName) {
+		for(AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			TypeElement annType = (TypeElement) mirror.getAnnotationType().asElement();
+			if(annType.getQualifiedName().contentEquals(annName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void write() {
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT,
+					"", INDEX_FILE);
+			try(Writer writer = file.openWriter()) {
+				PrintWriter out = new PrintWriter(writer);
+				out.println("# Generated by " + getClass().getName() + ". Do not edit.");
+				for(String entry : entries) {
+					out.println(entry);
+				}
+				out.flush();
+			}
+		}
+		catch(IOException exep) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					String.format("unable to write %s: %s", INDEX_FILE, exep.getMessage()));
+		}
+	}
+}
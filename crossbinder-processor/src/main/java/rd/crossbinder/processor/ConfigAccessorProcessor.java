@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a <code>&lt;Root&gt;_ConfigAccessor</code> class for every class annotated with
+ * {@link ConfigRoot}. The generated class implements <code>BiFunction&lt;Object, String,
+ * Object&gt;</code>: it takes a root instance and a dotted path, and reads the value at that path
+ * through direct field reads and getter calls. For a path it does not know, it returns the accessor
+ * instance itself, which tells the caller to fall back to reflection.
+ * <p>
+ * Properties are the <code>@JsonProperty</code> fields and getters of a class and its
+ * superclasses, named the same way as by the configuration providers. A field is read directly
+ * when it is accessible from the package of the root, otherwise a getter for the same property is
+ * called. As with reflective reads, a getter that is accessible as well is called when the field is
+ * <code>null</code>. Properties reachable through neither are left out, as are paths below a
+ * property whose declared type has no <code>@JsonProperty</code> members.
+ *
+ * @author randondiesel
+ *
+ */
+
+@SupportedAnnotationTypes("rd.crossbinder.processor.ConfigRoot")
+public class ConfigAccessorProcessor extends AbstractProcessor {
+
+	private static final String JSON_PROPERTY = "com.fasterxml.jackson.annotation.JsonProperty";
+	private static final String SUFFIX        = "_ConfigAccessor";
+	private static final int    MAX_DEPTH     = 16;
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for(TypeElement annotation : annotations) {
+			for(Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if(!element.getKind().isClass()) {
+					error(element, "@ConfigRoot is only allowed on classes");
+					continue;
+				}
+				generate((TypeElement) element);
+			}
+		}
+		return true;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private void generate(TypeElement root) {
+		String pkgName = processingEnv.getElementUtils().getPackageOf(root).getQualifiedName()
+				.toString();
+		if(!isAccessible(root, pkgName)) {
+			error(root, "@ConfigRoot class must not be private");
+			return;
+		}
+		Map<String, List<Property>> paths = new LinkedHashMap<>();
+		collect(root.asType(), null, new ArrayList<>(), pkgName, paths, new HashSet<>());
+
+		String simpleName = accessorSimpleName(root);
+		String qualifiedName = pkgName.isEmpty() ? simpleName : pkgName + "." + simpleName;
+		try {
+			JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, root);
+			try(Writer writer = file.openWriter()) {
+				write(new PrintWriter(writer), pkgName, simpleName, typeName(root.asType()), paths);
+			}
+		}
+		catch(IOException exep) {
+			error(root, String.format("unable to write %s: %s", qualifiedName, exep.getMessage()));
+		}
+	}
+
+	private void collect(TypeMirror type, String prefix, List<Property> chain, String pkgName,
+			Map<String, List<Property>> paths, Set<String> visiting) {
+		if(chain.size() >= MAX_DEPTH || type.getKind() != TypeKind.DECLARED) {
+			return;
+		}
+		TypeElement typeElem = (TypeElement) ((DeclaredType) type).asElement();
+		String typeKey = typeElem.getQualifiedName().toString();
+		if(!isAccessible(typeElem, pkgName) || !visiting.add(typeKey)) {
+			return;
+		}
+		for(Property property : properties(typeElem, pkgName)) {
+			String path = (prefix == null) ? property.name : prefix + "." + property.name;
+			List<Property> subChain = new ArrayList<>(chain);
+			subChain.add(property);
+			paths.put(path, subChain);
+			collect(property.type, path, subChain, pkgName, paths, visiting);
+		}
+		visiting.remove(typeKey);
+	}
+
+	/*
+	 * Mirrors the property resolution of the configuration providers: fields across the class
+	 * hierarchy first, then getters, the member closest to the class winning in each case.
+	 */
+
+	private List<Property> properties(TypeElement typeElem, String pkgName) {
+		Map<String, VariableElement> fields = new LinkedHashMap<>();
+		Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+		TypeElement current = typeElem;
+		while(current != null) {
+			for(VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+				AnnotationMirror ann = jsonProperty(field);
+				if(ann != null && !field.getModifiers().contains(Modifier.STATIC)) {
+					fields.putIfAbsent(propertyName(ann, field.getSimpleName().toString()), field);
+				}
+			}
+			for(ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+				AnnotationMirror ann = jsonProperty(method);
+				if(ann == null || !method.getParameters().isEmpty()
+						|| method.getModifiers().contains(Modifier.STATIC)) {
+					continue;
+				}
+				String name = propertyName(ann, getNameFromMethod(method));
+				if(name != null) {
+					methods.putIfAbsent(name, method);
+				}
+			}
+			current = superclassOf(current);
+		}
+
+		Set<String> names = new HashSet<>(fields.keySet());
+		names.addAll(methods.keySet());
+		List<Property> result = new ArrayList<>();
+		for(String name : names) {
+			VariableElement field = fields.get(name);
+			ExecutableElement method = methods.get(name);
+			if(field != null && isAccessible(field, pkgName)) {
+				String fallback = null;
+				if(method != null && isAccessible(method, pkgName)
+						&& isFallback(method.getReturnType(), field.asType())) {
+					fallback = method.getSimpleName() + "()";
+				}
+				result.add(new Property(name, field.getSimpleName().toString(), fallback,
+						field.asType()));
+			}
+			else if(method != null && isAccessible(method, pkgName)) {
+				result.add(new Property(name, method.getSimpleName() + "()", null,
+						method.getReturnType()));
+			}
+		}
+		Collections.sort(result, (p1, p2) -> p1.name.compareTo(p2.name));
+		return result;
+	}
+
+	private void write(PrintWriter out, String pkgName, String simpleName, String rootType,
+			Map<String, List<Property>> paths) {
+		if(!pkgName.isEmpty()) {
+			out.printf("package %s;%n%n", pkgName);
+		}
+		out.printf("/**%n * Configuration path accessor generated by %s. Do not edit.%n */%n%n",
+				getClass().getName());
+		out.printf("public final class %s implements java.util.function.BiFunction<Object, String, "
+				+ "Object> {%n%n", simpleName);
+		out.printf("\t@Override%n");
+		out.printf("\tpublic Object apply(Object root, String path) {%n");
+		out.printf("\t\t%s r = (%s) root;%n", rootType, rootType);
+		out.printf("\t\tswitch(path) {%n");
+		int index = 0;
+		for(String path : paths.keySet()) {
+			out.printf("\t\tcase \"%s\":%n\t\t\treturn p%d(r);%n", escape(path), index++);
+		}
+		out.printf("\t\tdefault:%n\t\t\treturn this;%n\t\t}%n\t}%n");
+
+		index = 0;
+		for(List<Property> chain : paths.values()) {
+			out.printf("%n\tprivate static Object p%d(%s r) {%n", index++, rootType);
+			String var = "r";
+			for(int i=0; i<chain.size() - 1; i++) {
+				Property property = chain.get(i);
+				String next = "v" + i;
+				out.printf("\t\t%s %s = %s;%n", typeName(property.type), next, readOf(var, property));
+				out.printf("\t\tif(%s == null) {%n\t\t\treturn null;%n\t\t}%n", next);
+				var = next;
+			}
+			out.printf("\t\treturn %s;%n\t}%n", readOf(var, chain.get(chain.size() - 1)));
+		}
+		out.printf("}%n");
+		out.flush();
+	}
+
+	/*
+	 * A getter is only a fallback for a field that can be null, and only if whatever it returns
+	 * can be held in the field type.
+	 */
+
+	private boolean isFallback(TypeMirror returnType, TypeMirror fieldType) {
+		if(fieldType.getKind().isPrimitive() || returnType.getKind() == TypeKind.VOID) {
+			return false;
+		}
+		Types types = processingEnv.getTypeUtils();
+		return types.isAssignable(types.erasure(returnType), types.erasure(fieldType));
+	}
+
+	private static String readOf(String var, Property property) {
+		if(property.fallback == null) {
+			return var + "." + property.access;
+		}
+		return String.format("(%1$s.%2$s != null) ? %1$s.%2$s : %1$s.%3$s", var, property.access,
+				property.fallback);
+	}
+
+	private boolean isAccessible(Element element, String pkgName) {
+		Set<Modifier> mods = element.getModifiers();
+		if(mods.contains(Modifier.PRIVATE)) {
+			return false;
+		}
+		Element owner = element.getEnclosingElement();
+		if(owner != null && (owner.getKind().isClass() || owner.getKind().isInterface())
+				&& !isAccessible(owner, pkgName)) {
+			return false;
+		}
+		if(mods.contains(Modifier.PUBLIC)) {
+			return true;
+		}
+		return processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString()
+				.equals(pkgName);
+	}
+
+	private TypeElement superclassOf(TypeElement typeElem) {
+		TypeMirror superType = typeElem.getSuperclass();
+		if(superType.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		return (TypeElement) ((DeclaredType) superType).asElement();
+	}
+
+	private AnnotationMirror jsonProperty(Element element) {
+		for(AnnotationMirror ann : element.getAnnotationMirrors()) {
+			TypeElement annType = (TypeElement) ann.getAnnotationType().asElement();
+			if(annType.getQualifiedName().contentEquals(JSON_PROPERTY)) {
+				return ann;
+			}
+		}
+		return null;
+	}
+
+	private String propertyName(AnnotationMirror ann, String memberName) {
+		String annName = annotationValue(ann, "value");
+		if(annName.trim().isEmpty()) {
+			annName = annotationValue(ann, "defaultValue");
+		}
+		if(annName.trim().isEmpty()) {
+			annName = memberName;
+		}
+		return annName;
+	}
+
+	private String annotationValue(AnnotationMirror ann, String name) {
+		for(Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+				ann.getElementValues().entrySet()) {
+			if(entry.getKey().getSimpleName().contentEquals(name)) {
+				return String.valueOf(entry.getValue().getValue());
+			}
+		}
+		return "";
+	}
+
+	private String getNameFromMethod(ExecutableElement method) {
+		TypeMirror returnType = method.getReturnType();
+		if(returnType.getKind() == TypeKind.VOID) {
+			return null;
+		}
+		boolean bool = (returnType.getKind() == TypeKind.BOOLEAN)
+				|| returnType.toString().equals(Boolean.class.getName());
+
+		String mthdName = method.getSimpleName().toString();
+		String name = null;
+		if(mthdName.startsWith("get") && mthdName.length() > 3 && !bool) {
+			name = mthdName.substring(3);
+		}
+		else if(mthdName.startsWith("is") && mthdName.length() > 2 && bool) {
+			name = mthdName.substring(2);
+		}
+		if(name == null) {
+			return null;
+		}
+		return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+	}
+
+	private String typeName(TypeMirror type) {
+		return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+
+	private String accessorSimpleName(TypeElement root) {
+		StringBuilder buffer = new StringBuilder(root.getSimpleName());
+		Element owner = root.getEnclosingElement();
+		while(owner.getKind() != ElementKind.PACKAGE) {
+			buffer.insert(0, owner.getSimpleName() + "_");
+			owner = owner.getEnclosingElement();
+		}
+		return buffer.append(SUFFIX).toString();
+	}
+
+	private String escape(String path) {
+		StringBuilder buffer = new StringBuilder();
+		for(char ch : path.toCharArray()) {
+			if(ch == '"' || ch == '\\') {
+				buffer.append('\\');
+			}
+			if(ch < 0x20 || ch > 0x7e) {
+				buffer.append(String.format("\\u%04x", (int) ch));
+			}
+			else {
+				buffer.append(ch);
+			}
+		}
+		return buffer.toString();
+	}
+
+	private void error(Element element, String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner class for a property that the generated code can read
+
+	private static final class Property {
+
+		private final String     name;
+		private final String     access;
+		private final String     fallback;
+		private final TypeMirror type;
+
+		Property(String name, String access, String fallback, TypeMirror type) {
+			this.name = name;
+			this.access = access;
+			this.fallback = fallback;
+			this.type = type;
+		}
+	}
+}
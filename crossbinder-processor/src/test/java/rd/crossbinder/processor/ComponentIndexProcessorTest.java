@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class ComponentIndexProcessorTest {
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	@Before
+	public void setUp() throws Exception {
+		SourceCompiler compiler = newCompiler();
+		compiler.add("javax.ws.rs.Path", "package javax.ws.rs;",
+				"public @interface Path { String value(); }");
+		compiler.add("javax.servlet.annotation.WebServlet", "package javax.servlet.annotation;",
+				"public @interface WebServlet { String[] value() default {}; }");
+		compiler.add("javax.servlet.annotation.WebFilter", "package javax.servlet.annotation;",
+				"public @interface WebFilter { String[] value() default {}; }");
+		assertTrue(compiler.getErrors(), compiler.compile(new ComponentIndexProcessor()));
+	}
+
+	@Test
+	public void listsConcreteComponentsSorted() throws Exception {
+		SourceCompiler compiler = newCompiler();
+		compiler.add("app.Resource", "package app;",
+				"@javax.ws.rs.Path('/r') public class Resource {",
+				"	@javax.ws.rs.Path('/inner') public static class Inner { }",
+				"}");
+		compiler.add("app.MethodResource", "package app;",
+				"public class MethodResource {",
+				"	@javax.ws.rs.Path('/m') public String get() { return null; }",
+				"}");
+		compiler.add("app.AbstractResource", "package app;",
+				"@javax.ws.rs.Path('/a') public abstract class AbstractResource { }");
+		compiler.add("app.Servlet", "package app;",
+				"@javax.servlet.annotation.WebServlet('/s') public class Servlet { }");
+		compiler.add("app.Filter", "package app;",
+				"@javax.servlet.annotation.WebFilter('/*') public class Filter { }");
+		assertTrue(compiler.getErrors(), compiler.compile(new ComponentIndexProcessor()));
+
+		assertEquals(Arrays.asList(
+				"javax.servlet.annotation.WebFilter app.Filter",
+				"javax.servlet.annotation.WebServlet app.Servlet",
+				"javax.ws.rs.Path app.MethodResource",
+				"javax.ws.rs.Path app.Resource",
+				"javax.ws.rs.Path app.Resource$Inner"), readIndex());
+	}
+
+	@Test
+	public void keepsEntriesOfClassesNotRecompiled() throws Exception {
+		SourceCompiler compiler = newCompiler();
+		compiler.add("app.First", "package app;", "@javax.ws.rs.Path('/1') public class First { }");
+		compiler.add("app.Second", "package app;",
+				"@javax.servlet.annotation.WebServlet('/2') public class Second { }");
+		assertTrue(compiler.getErrors(), compiler.compile(new ComponentIndexProcessor()));
+
+		compiler = newCompiler();
+		compiler.add("app.Second", "package app;", "public class Second { }");
+		compiler.add("app.Third", "package app;",
+				"@javax.servlet.annotation.WebFilter('/3') public class Third { }");
+		assertTrue(compiler.getErrors(), compiler.compile(new ComponentIndexProcessor()));
+
+		assertEquals(Arrays.asList(
+				"javax.servlet.annotation.WebFilter app.Third",
+				"javax.ws.rs.Path app.First"), readIndex());
+	}
+
+	@Test
+	public void writesNoIndexWithoutComponents() throws Exception {
+		SourceCompiler compiler = newCompiler();
+		compiler.add("app.Plain", "package app;", "public class Plain { }");
+		assertTrue(compiler.getErrors(), compiler.compile(new ComponentIndexProcessor()));
+		assertFalse(indexFile().exists());
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private SourceCompiler newCompiler() {
+		return new SourceCompiler(tempDir.getRoot());
+	}
+
+	private File indexFile() {
+		return new File(newCompiler().getOutputDir(), ComponentIndexProcessor.INDEX_FILE);
+	}
+
+	private List<String> readIndex() throws IOException {
+		List<String> lines = Files.readAllLines(indexFile().toPath(), StandardCharsets.UTF_8);
+		assertTrue(lines.get(0).startsWith("#"));
+		return lines.subList(1, lines.size());
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.function.BiFunction;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class ConfigAccessorProcessorTest {
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	private SourceCompiler compiler;
+	private ClassLoader    loader;
+
+	@Before
+	public void setUp() throws Exception {
+		compiler = new SourceCompiler(tempDir.getRoot());
+		compiler.add("com.fasterxml.jackson.annotation.JsonProperty",
+				"package com.fasterxml.jackson.annotation;",
+				"public @interface JsonProperty {",
+				"	String value() default '';",
+				"	String defaultValue() default '';",
+				"}");
+	}
+
+	@Test
+	public void readsFieldsGettersAndNestedPaths() throws Exception {
+		BiFunction<Object, String, Object> accessor = compileRoot();
+		Object root = newRoot();
+		assertEquals("main", accessor.apply(root, "name"));
+		assertEquals(8080, accessor.apply(root, "port"));
+		assertEquals("localhost", accessor.apply(root, "server.host"));
+		assertEquals(Boolean.TRUE, accessor.apply(root, "server.secure"));
+	}
+
+	@Test
+	public void fallsBackToGetterWhenFieldIsNull() throws Exception {
+		BiFunction<Object, String, Object> accessor = compileRoot();
+		Object root = newRoot();
+		assertEquals("from-getter", accessor.apply(root, "alias"));
+		root.getClass().getDeclaredField("alias").set(root, "from-field");
+		assertEquals("from-field", accessor.apply(root, "alias"));
+	}
+
+	@Test
+	public void returnsNullBelowNullSection() throws Exception {
+		BiFunction<Object, String, Object> accessor = compileRoot();
+		Object root = newRoot();
+		root.getClass().getDeclaredField("server").set(root, null);
+		assertNull(accessor.apply(root, "server.host"));
+	}
+
+	@Test
+	public void returnsItselfForUnknownPath() throws Exception {
+		BiFunction<Object, String, Object> accessor = compileRoot();
+		assertSame(accessor, accessor.apply(newRoot(), "nowhere"));
+		assertSame(accessor, accessor.apply(newRoot(), "secret"));
+	}
+
+	@Test
+	public void rejectsRootThatIsNotClass() throws Exception {
+		compiler.add("sample.NotRoot",
+				"package sample;",
+				"@rd.crossbinder.processor.ConfigRoot",
+				"public interface NotRoot {",
+				"}");
+		assertFalse(compiler.compile(new ConfigAccessorProcessor()));
+		assertTrue(compiler.getErrors(), compiler.getErrors().contains("only allowed on classes"));
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	@SuppressWarnings("unchecked")
+	private BiFunction<Object, String, Object> compileRoot() throws Exception {
+		compiler.add("sample.Root",
+				"package sample;",
+				"import com.fasterxml.jackson.annotation.JsonProperty;",
+				"@rd.crossbinder.processor.ConfigRoot",
+				"public class Root {",
+				"	@JsonProperty String name = 'main';",
+				"	@JsonProperty private int port = 8080;",
+				"	@JsonProperty('alias') public String alias;",
+				"	@JsonProperty public Server server = new Server();",
+				"	@JsonProperty private String secret;",
+				"	@JsonProperty public int getPort() { return port; }",
+				"	@JsonProperty public String getAlias() { return 'from-getter'; }",
+				"	public static class Server {",
+				"		@JsonProperty String host = 'localhost';",
+				"		@JsonProperty public boolean isSecure() { return true; }",
+				"	}",
+				"}");
+		assertTrue(compiler.getErrors(), compiler.compile(new ConfigAccessorProcessor()));
+		assertTrue(new File(compiler.getOutputDir(), "sample/Root_ConfigAccessor.java").isFile());
+		loader = compiler.newClassLoader();
+		Class<?> accessorCls = loader.loadClass("sample.Root_ConfigAccessor");
+		return (BiFunction<Object, String, Object>) accessorCls.newInstance();
+	}
+
+	private Object newRoot() throws Exception {
+		return loader.loadClass("sample.Root").newInstance();
+	}
+}
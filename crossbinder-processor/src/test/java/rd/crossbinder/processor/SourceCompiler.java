@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.processing.Processor;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles test sources with one annotation processor into a scratch directory, so that the
+ * processor output can be read and the compiled classes loaded. Classes compiled earlier into the
+ * same directory are on the class path, as in an incremental build.
+ *
+ * @author randondiesel
+ *
+ */
+
+final class SourceCompiler {
+
+	private final File       srcDir;
+	private final File       outDir;
+	private final List<File> sources;
+	private String           errors;
+
+	SourceCompiler(File baseDir) {
+		srcDir = new File(baseDir, "src");
+		outDir = new File(baseDir, "classes");
+		sources = new ArrayList<>();
+	}
+
+	/**
+	 * Adds a source file. Single quotes in the lines are written as double quotes.
+	 */
+
+	SourceCompiler add(String className, String... lines) throws IOException {
+		File file = new File(srcDir, className.replace('.', '/') + ".java");
+		file.getParentFile().mkdirs();
+		List<String> content = new ArrayList<>();
+		for(String line : lines) {
+			content.add(line.replace('\'', '"'));
+		}
+		Files.write(file.toPath(), content, StandardCharsets.UTF_8);
+		sources.add(file);
+		return this;
+	}
+
+	/**
+	 * @return whether the sources compiled without errors
+	 */
+
+	boolean compile(Processor processor) throws IOException {
+		outDir.mkdirs();
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try(StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null,
+				StandardCharsets.UTF_8)) {
+			String classPath = System.getProperty("java.class.path") + File.pathSeparator
+					+ outDir.getPath();
+			List<String> options = Arrays.asList("-d", outDir.getPath(), "-s", outDir.getPath(),
+					"-classpath", classPath);
+			JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics, options,
+					null, files.getJavaFileObjectsFromFiles(sources));
+			task.setProcessors(Arrays.asList(processor));
+			boolean result = task.call();
+			errors = diagnostics.getDiagnostics().toString();
+			return result;
+		}
+	}
+
+	String getErrors() {
+		return errors;
+	}
+
+	File getOutputDir() {
+		return outDir;
+	}
+
+	ClassLoader newClassLoader() throws MalformedURLException {
+		return new URLClassLoader(new URL[] {outDir.toURI().toURL()}, getClass().getClassLoader());
+	}
+}
@@ -18,12 +18,15 @@ import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import rd.crossbinder.processor.ConfigRoot;
+
 /**
  *
  * @author randondiesel
  *
  */
 
+@ConfigRoot
 public class CrossbinderConfig {
 
 	@JsonProperty("core-packages")
@@ -32,11 +35,13 @@ public class CrossbinderConfig {
 	@JsonProperty("web-packages")
 	private List<String> webPkgNames;
 
+	@JsonProperty("core-packages")
 	public List<String> getCorePackageNames() {
 		return corePkgNames;
 	}
 
+	@JsonProperty("web-packages")
 	public List<String> getWebPackageNames() {
-		return corePkgNames;
+		return webPkgNames;
 	}
 }
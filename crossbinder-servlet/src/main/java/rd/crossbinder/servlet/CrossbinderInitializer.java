@@ -14,10 +14,14 @@
 
 package rd.crossbinder.servlet;
 
-import java.io.File;
-import java.io.FileInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
@@ -29,6 +33,8 @@ import javax.servlet.FilterRegistration;
 import javax.servlet.Servlet;
 import javax.servlet.ServletContainerInitializer;
 import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRegistration;
 import javax.servlet.annotation.HandlesTypes;
@@ -41,8 +47,18 @@ import org.apache.commons.lang3.StringUtils;
 
 import rd.classpath.ClasspathBrowser;
 import rd.classpath.ScanPath;
+import rd.crossbinder.config.jackson.ClasspathConfigSource;
+import rd.crossbinder.config.jackson.ConfigSource;
+import rd.crossbinder.config.jackson.EventTracer;
+import rd.crossbinder.config.jackson.EventTracers;
+import rd.crossbinder.config.jackson.InjectionTracker;
 import rd.crossbinder.config.jackson.JacksonConfigProvider;
 import rd.crossbinder.hod.Crossbinder;
+import rd.crossbinder.hod.Injector;
+import rd.crossbinder.web.ComponentIndexFile;
+import rd.crossbinder.web.LazyFilter;
+import rd.crossbinder.web.LazyServlet;
+import rd.crossbinder.web.StartupTimer;
 
 /**
  *
@@ -55,20 +71,52 @@ public class CrossbinderInitializer implements ServletContainerInitializer {
 
 	private static final Logger LOGGER = Logger.getLogger(CrossbinderInitializer.class.getName());
 
+	private static final EventTracer TRACER = EventTracers.get();
+
 	public static final String KEY_CROSSBINDER_INST        = "crossbinder.instance";
 	public static final String KEY_CROSSBINDER_CONFIG_TYPE = "crossbinder.config.type";
 	public static final String KEY_CROSSBINDER_CONFIG_PATH = "crossbinder.config.path";
 
+	/**
+	 * Context attribute that, when set to <code>true</code>, reloads the configuration whenever its
+	 * file changes and injects again the servlets and filters whose configuration values changed.
+	 * This only applies when the configuration is a file of an unpacked web application and the
+	 * crossbinder instance is created by this initializer.
+	 */
+
+	public static final String KEY_CROSSBINDER_CONFIG_WATCH = "crossbinder.config.watch";
+
+	/**
+	 * Context attribute that, when set to <code>true</code>, registers a lightweight delegate for
+	 * each servlet and filter, and constructs and injects the actual instance only when it is first
+	 * needed. Servlets with a non-negative <code>loadOnStartup</code> are still created at startup;
+	 * other servlets and all filters are created on their first request.
+	 */
+
+	public static final String KEY_CROSSBINDER_LAZY = "crossbinder.lazy";
+
+	private static final String CLASSPATH_PREFIX = "classpath:";
+
 	@Override
 	public void onStartup(Set<Class<?>> classes, ServletContext ctxt) throws ServletException {
 
+		StartupTimer timer = new StartupTimer();
+		long phaseStart = System.nanoTime();
+
+		CrossbinderConfig pgConfig = readCrossbinderConfig(ctxt);
+		if(pgConfig == null) {
+			LOGGER.severe("unable to read crossbinder configuration section. Ending initialization.");
+			return;
+		}
+		phaseStart = timer.endPhase("config-section", phaseStart);
 		JacksonConfigProvider jcp = createConfigProvider(ctxt);
 		if(jcp == null) {
 			LOGGER.severe("unable to load crossbinder configuration. Ending initialization.");
 			return;
 		}
-		CrossbinderConfig pgConfig = (CrossbinderConfig) jcp.getValue("crossbinder", CrossbinderConfig.class);
+		phaseStart = timer.endPhase("config", phaseStart);
 		Crossbinder crossbinder = null;
+		Injector injector = null;
 		try {
 			crossbinder = (Crossbinder) ctxt.getAttribute(KEY_CROSSBINDER_INST);
 			if(crossbinder != null) {
@@ -82,8 +130,26 @@ public class CrossbinderInitializer implements ServletContainerInitializer {
 				}
 				crossbinder = Crossbinder.create();
 				crossbinder.scanPath(scanp);
-				crossbinder.configure(jcp);
-				crossbinder.start();
+				phaseStart = timer.endPhase("scan-path", phaseStart);
+				if(isWatchEnabled(ctxt)) {
+					InjectionTracker tracker = new InjectionTracker(jcp);
+					crossbinder.configure(tracker);
+					phaseStart = timer.endPhase("configure", phaseStart);
+					crossbinder.start();
+					phaseStart = timer.endPhase("start", phaseStart);
+					injector = tracker.track(EventTracers.trace(crossbinder.injector()));
+					jcp.addChangeListener(tracker::refresh);
+					watchConfig(jcp, ctxt);
+				}
+				else {
+					crossbinder.configure(jcp);
+					phaseStart = timer.endPhase("configure", phaseStart);
+					crossbinder.start();
+					phaseStart = timer.endPhase("start", phaseStart);
+				}
+			}
+			if(injector == null) {
+				injector = EventTracers.trace(crossbinder.injector());
 			}
 		}
 		catch(Exception exep) {
@@ -94,29 +160,78 @@ public class CrossbinderInitializer implements ServletContainerInitializer {
 		LOGGER.fine("registering servlets and filters");
 		List<String> webPkgNames = pgConfig.getWebPackageNames();
 
-		ClasspathBrowser cpb = new ClasspathBrowser();
-		ScanPath scanp = new ScanPath();
-		for(String pkgName : webPkgNames) {
-			scanp.includePackage(pkgName);
+		ComponentIndexFile index = ComponentIndexFile.load(ctxt.getClassLoader());
+		List<String> indexedPkgNames = index.getIndexedPackages(webPkgNames);
+		Set<Class<?>> servletTypes =
+				new LinkedHashSet<>(index.listClasses(WebServlet.class, indexedPkgNames));
+		Set<Class<?>> filterTypes =
+				new LinkedHashSet<>(index.listClasses(WebFilter.class, indexedPkgNames));
+		List<String> scanPkgNames = new ArrayList<>(webPkgNames);
+		scanPkgNames.removeAll(indexedPkgNames);
+		if(!scanPkgNames.isEmpty()) {
+			if(!indexedPkgNames.isEmpty()) {
+				LOGGER.info(String.format("packages %s are not covered by a component index, "
+						+ "scanning them", scanPkgNames));
+			}
+			ClasspathBrowser cpb = new ClasspathBrowser();
+			ScanPath scanp = new ScanPath();
+			for(String pkgName : scanPkgNames) {
+				scanp.includePackage(pkgName);
+			}
+			cpb.load(scanp);
+			servletTypes.addAll(cpb.listAnnotatedClasses(WebServlet.class));
+			filterTypes.addAll(cpb.listAnnotatedClasses(WebFilter.class));
 		}
-		cpb.load(scanp);
+		phaseStart = timer.endPhase("scan", phaseStart);
 
-		List<Class<?>> servletTypes = cpb.listAnnotatedClasses(WebServlet.class);
+		boolean lazyFlag = isLazyEnabled(ctxt);
 		for(Class<?> type : servletTypes) {
 			if(Servlet.class.isAssignableFrom(type)) {
-				registerServlet(type, ctxt, crossbinder);
+				Object token = TRACER.beginRegistration();
+				registerServlet(type, ctxt, injector, timer, lazyFlag);
+				if(token != null) {
+					TRACER.endRegistration(token, "servlet", type);
+				}
 			}
 		}
+		phaseStart = timer.endPhase("servlets", phaseStart);
 
-		List<Class<?>> filterTypes = cpb.listAnnotatedClasses(WebFilter.class);
 		for(Class<?> type : filterTypes) {
-			registerFilter(type, ctxt, crossbinder);
+			Object token = TRACER.beginRegistration();
+			registerFilter(type, ctxt, injector, timer, lazyFlag);
+			if(token != null) {
+				TRACER.endRegistration(token, "filter", type);
+			}
 		}
+		timer.endPhase("filters", phaseStart);
+		timer.finish();
 	}
 
 	////////////////////////////////////////////////////////////////////////////
 	// Helper methods
 
+	/*
+	 * Only the crossbinder section is bound here, by streaming the configuration and skipping
+	 * everything else, so that a missing or broken section is reported before the full
+	 * application configuration is bound.
+	 */
+
+	CrossbinderConfig readCrossbinderConfig(ServletContext ctxt) {
+		String configPath = (String) ctxt.getAttribute(KEY_CROSSBINDER_CONFIG_PATH);
+		if(StringUtils.isEmpty(configPath)) {
+			LOGGER.fine("crossbinder config path not found in servlet context");
+			return null;
+		}
+		try {
+			return JacksonConfigProvider.bindSection(createConfigSource(configPath, ctxt),
+					"crossbinder", CrossbinderConfig.class);
+		}
+		catch(Exception exep) {
+			LOGGER.log(Level.SEVERE, "error reading crossbinder config section.", exep);
+			return null;
+		}
+	}
+
 	JacksonConfigProvider createConfigProvider(ServletContext ctxt) {
 		Class<? extends WebConfiguration> configType = null;
 		String configPath = null;
@@ -140,14 +255,7 @@ public class CrossbinderInitializer implements ServletContainerInitializer {
 
 		JacksonConfigProvider jcp = new JacksonConfigProvider();
 		try {
-			File configFile = new File(ctxt.getRealPath(configPath));
-			FileInputStream input = new FileInputStream(configFile);
-			if(StringUtils.endsWithAny(configPath, ".yaml", ".yml")) {
-				jcp.loadYaml(configType, input);
-			}
-			else if(StringUtils.endsWithIgnoreCase(configPath, ".json")) {
-				jcp.loadJson(configType, input);
-			}
+			jcp.load(configType, createConfigSource(configPath, ctxt));
 		}
 		catch(Exception exep) {
 			LOGGER.log(Level.SEVERE, "error loading crossbinder config.", exep);
@@ -156,7 +264,51 @@ public class CrossbinderInitializer implements ServletContainerInitializer {
 		return jcp;
 	}
 
-	private void registerServlet(Class<?> type, ServletContext ctxt, Crossbinder crossbinder) {
+	/*
+	 * A config path prefixed with "classpath:" is loaded from the class path; any other path is
+	 * loaded as a resource of the web application.
+	 */
+
+	private ConfigSource createConfigSource(String configPath, ServletContext ctxt) {
+		if(configPath.startsWith(CLASSPATH_PREFIX)) {
+			return new ClasspathConfigSource(configPath.substring(CLASSPATH_PREFIX.length()),
+					ctxt.getClassLoader());
+		}
+		return new ServletResourceConfigSource(ctxt, configPath);
+	}
+
+	private boolean isWatchEnabled(ServletContext ctxt) {
+		Object value = ctxt.getAttribute(KEY_CROSSBINDER_CONFIG_WATCH);
+		return (value != null && Boolean.parseBoolean(value.toString()));
+	}
+
+	private boolean isLazyEnabled(ServletContext ctxt) {
+		Object value = ctxt.getAttribute(KEY_CROSSBINDER_LAZY);
+		return (value != null && Boolean.parseBoolean(value.toString()));
+	}
+
+	private void watchConfig(JacksonConfigProvider jcp, ServletContext ctxt) {
+		String configPath = (String) ctxt.getAttribute(KEY_CROSSBINDER_CONFIG_PATH);
+		String realPath = configPath.startsWith(CLASSPATH_PREFIX) ? null : ctxt.getRealPath(configPath);
+		if(realPath == null) {
+			LOGGER.warning(String.format("crossbinder config %s is not a file, not watching it",
+					configPath));
+			return;
+		}
+		try {
+			String configTypeName = (String) ctxt.getAttribute(KEY_CROSSBINDER_CONFIG_TYPE);
+			Class<?> configType = Class.forName(configTypeName);
+			Path file = Paths.get(realPath);
+			ctxt.addListener(new ConfigWatchCloser(jcp.watch(configType, file)));
+			LOGGER.info(String.format("watching crossbinder config %s", file));
+		}
+		catch(Exception exep) {
+			LOGGER.log(Level.WARNING, "unable to watch crossbinder config", exep);
+		}
+	}
+
+	private void registerServlet(Class<?> type, ServletContext ctxt, Injector injector,
+			StartupTimer timer, boolean lazyFlag) {
 		LOGGER.fine(String.format("registering servlet: %s", type.getName()));
 		WebServlet ann = type.getAnnotation(WebServlet.class);
 		if(ann == null) {
@@ -178,13 +330,18 @@ public class CrossbinderInitializer implements ServletContainerInitializer {
 		}
 		int losu = ann.loadOnStartup();
 		Servlet servlet = null;
-		try {
-			servlet = (Servlet) type.newInstance();
-			crossbinder.injector().inject(servlet);
+		if(lazyFlag) {
+			servlet = new LazyServlet(type, losu >= 0,
+					() -> (Servlet) instantiate(type, injector, null));
 		}
-		catch(Exception exep) {
-			LOGGER.warning(String.format("error creating servlet: %s", type.getName()));
-			return;
+		else {
+			try {
+				servlet = (Servlet) instantiate(type, injector, timer);
+			}
+			catch(Exception exep) {
+				LOGGER.warning(String.format("error creating servlet: %s", type.getName()));
+				return;
+			}
 		}
 
 		ServletRegistration.Dynamic dynamic = ctxt.addServlet(servletName, servlet);
@@ -202,7 +359,8 @@ public class CrossbinderInitializer implements ServletContainerInitializer {
 		}
 	}
 
-	private void registerFilter(Class<?> type, ServletContext ctxt, Crossbinder crossbinder) {
+	private void registerFilter(Class<?> type, ServletContext ctxt, Injector injector,
+			StartupTimer timer, boolean lazyFlag) {
 		LOGGER.fine(String.format("registering filter: %s", type.getName()));
 		WebFilter ann = type.getAnnotation(WebFilter.class);
 		if(ann == null) {
@@ -233,13 +391,17 @@ public class CrossbinderInitializer implements ServletContainerInitializer {
 		}
 
 		Filter filter = null;
-		try {
-			filter = (Filter) type.newInstance();
-			crossbinder.injector().inject(filter);
+		if(lazyFlag) {
+			filter = new LazyFilter(type, () -> (Filter) instantiate(type, injector, null));
 		}
-		catch(Exception exep) {
-			LOGGER.warning(String.format("error creating filter %s", type.getName()));
-			return;
+		else {
+			try {
+				filter = (Filter) instantiate(type, injector, timer);
+			}
+			catch(Exception exep) {
+				LOGGER.warning(String.format("error creating filter %s", type.getName()));
+				return;
+			}
 		}
 		FilterRegistration.Dynamic dynamic = ctxt.addFilter(filterName, filter);
 		dynamic.addMappingForUrlPatterns(dispatchers, true, patterns);
@@ -256,4 +418,43 @@ public class CrossbinderInitializer implements ServletContainerInitializer {
 			}
 		}
 	}
+
+	private static Object instantiate(Class<?> type, Injector injector, StartupTimer timer)
+			throws Exception {
+		long begin = System.nanoTime();
+		Object component = type.newInstance();
+		long created = System.nanoTime();
+		injector.inject(component);
+		if(timer != null) {
+			timer.recordComponent(type, created - begin, System.nanoTime() - created);
+		}
+		return component;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner class that stops watching the configuration on shutdown
+
+	private static final class ConfigWatchCloser implements ServletContextListener {
+
+		private final Closeable watch;
+
+		ConfigWatchCloser(Closeable watch) {
+			this.watch = watch;
+		}
+
+		@Override
+		public void contextInitialized(ServletContextEvent event) {
+			//NOOP
+		}
+
+		@Override
+		public void contextDestroyed(ServletContextEvent event) {
+			try {
+				watch.close();
+			}
+			catch(IOException exep) {
+				LOGGER.log(Level.FINE, "error closing configuration watch", exep);
+			}
+		}
+	}
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.servlet;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.servlet.ServletContext;
+
+import rd.crossbinder.config.jackson.ConfigSource;
+
+/**
+ * A configuration document read as a resource of a web application. Unlike a path obtained from
+ * <code>ServletContext.getRealPath()</code>, this also works when the application is deployed as
+ * an unexploded WAR.
+ *
+ * @author randondiesel
+ *
+ */
+
+public class ServletResourceConfigSource implements ConfigSource {
+
+	private final ServletContext ctxt;
+	private final String         path;
+
+	public ServletResourceConfigSource(ServletContext ctxt, String path) {
+		this.ctxt = ctxt;
+		this.path = path.startsWith("/") ? path : "/" + path;
+	}
+
+	@Override
+	public String getName() {
+		return path;
+	}
+
+	@Override
+	public InputStream openStream() throws IOException {
+		InputStream input = ctxt.getResourceAsStream(path);
+		if(input == null) {
+			throw new FileNotFoundException(String.format("servlet resource not found: %s", path));
+		}
+		return input;
+	}
+}
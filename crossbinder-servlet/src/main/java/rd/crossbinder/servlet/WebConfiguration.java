@@ -16,17 +16,21 @@ package rd.crossbinder.servlet;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import rd.crossbinder.processor.ConfigRoot;
+
 /**
  *
  * @author randondiesel
  *
  */
 
+@ConfigRoot
 public class WebConfiguration {
 
 	@JsonProperty("crossbinder")
 	private CrossbinderConfig config;
 
+	@JsonProperty("crossbinder")
 	public CrossbinderConfig getCrossbinderConfig() {
 		return config;
 	}
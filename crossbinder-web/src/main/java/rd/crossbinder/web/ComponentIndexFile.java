@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.web;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The component index files written at build time by
+ * <code>rd.crossbinder.processor.ComponentIndexProcessor</code>, merged across all class path
+ * entries. Each line of an index file holds the name of an annotation and the binary name of a
+ * class that carries it.
+ * <p>
+ * An index only answers for the class path entries that hold one. A package is therefore only
+ * looked up in the index if every class path entry that contains the package holds an index file,
+ * and the index lists at least one class of the package. Any other package has to be scanned.
+ *
+ * @author randondiesel
+ *
+ */
+
+public final class ComponentIndexFile {
+
+	private static final Logger LOGGER = Logger.getLogger(ComponentIndexFile.class.getName());
+
+	public static final String INDEX_FILE = "META-INF/crossbinder/components.idx";
+
+	private final ClassLoader              loader;
+	private final Set<String>              roots;
+	private final Map<String, Set<String>> classNames;
+
+	private ComponentIndexFile(ClassLoader loader, Set<String> roots,
+			Map<String, Set<String>> classNames) {
+		this.loader = loader;
+		this.roots = roots;
+		this.classNames = classNames;
+	}
+
+	/**
+	 * @param loader the class loader to find the index files and the indexed classes with, or
+	 * <code>null</code> for the class loader of this class
+	 * @return the index files visible to the class loader. If there are none, or they cannot be
+	 * read, the result covers no package.
+	 */
+
+	public static ComponentIndexFile load(ClassLoader loader) {
+		if(loader == null) {
+			loader = ComponentIndexFile.class.getClassLoader();
+		}
+		Set<String> roots = new HashSet<>();
+		Map<String, Set<String>> classNames = new HashMap<>();
+		try {
+			Enumeration<URL> urls = loader.getResources(INDEX_FILE);
+			while(urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				read(url, classNames);
+				roots.add(rootOf(url, INDEX_FILE));
+			}
+		}
+		catch(IOException exep) {
+			LOGGER.log(Level.WARNING, "unable to read component index, scanning instead", exep);
+			return new ComponentIndexFile(loader, Collections.emptySet(), Collections.emptyMap());
+		}
+		return new ComponentIndexFile(loader, roots, classNames);
+	}
+
+	/**
+	 * @return those of the given packages whose classes are all covered by the index, in the given
+	 * order. The other packages have to be scanned.
+	 */
+
+	public List<String> getIndexedPackages(List<String> pkgNames) {
+		List<String> result = new ArrayList<>();
+		if(roots.isEmpty()) {
+			return result;
+		}
+		for(String pkgName : pkgNames) {
+			if(isIndexed(pkgName)) {
+				result.add(pkgName);
+			}
+			else {
+				LOGGER.fine(String.format("package %s is not covered by a component index",
+						pkgName));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the indexed classes that carry the given annotation and belong to one of the given
+	 * packages or their subpackages. Classes that cannot be loaded are left out.
+	 */
+
+	public List<Class<?>> listClasses(Class<? extends Annotation> annType, List<String> pkgNames) {
+		Set<String> names = classNames.getOrDefault(annType.getName(), Collections.emptySet());
+		List<Class<?>> result = new ArrayList<>();
+		for(String name : names) {
+			if(!isInPackages(name, pkgNames)) {
+				continue;
+			}
+			try {
+				result.add(Class.forName(name, false, loader));
+			}
+			catch(ClassNotFoundException | LinkageError exep) {
+				LOGGER.log(Level.WARNING, String.format("indexed class %s cannot be loaded", name),
+						exep);
+			}
+		}
+		return result;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	/*
+	 * A class path entry is identified by the URL of its root, derived from the URL of a resource
+	 * in it. Archives without directory entries do not report their packages as resources; their
+	 * classes are still found by scanning whenever the index lists no class of the package.
+	 */
+
+	private boolean isIndexed(String pkgName) {
+		boolean listed = false;
+		for(Set<String> names : classNames.values()) {
+			for(String name : names) {
+				if(name.startsWith(pkgName + ".")) {
+					listed = true;
+					break;
+				}
+			}
+		}
+		if(!listed) {
+			return false;
+		}
+		String pkgPath = pkgName.replace('.', '/');
+		try {
+			Enumeration<URL> urls = loader.getResources(pkgPath);
+			while(urls.hasMoreElements()) {
+				if(!roots.contains(rootOf(urls.nextElement(), pkgPath))) {
+					return false;
+				}
+			}
+		}
+		catch(IOException exep) {
+			LOGGER.log(Level.FINE, String.format("unable to locate package %s", pkgName), exep);
+			return false;
+		}
+		return true;
+	}
+
+	private static String rootOf(URL url, String resourcePath) {
+		String text = url.toString();
+		if(text.endsWith("/")) {
+			text = text.substring(0, text.length() - 1);
+		}
+		if(text.endsWith(resourcePath)) {
+			text = text.substring(0, text.length() - resourcePath.length());
+		}
+		return text;
+	}
+
+	private static void read(URL url, Map<String, Set<String>> classNames) throws IOException {
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(),
+				StandardCharsets.UTF_8))) {
+			String line = null;
+			while((line = reader.readLine()) != null) {
+				line = line.trim();
+				int sep = line.indexOf(' ');
+				if(sep <= 0 || line.startsWith("#")) {
+					continue;
+				}
+				classNames.computeIfAbsent(line.substring(0, sep), key -> new LinkedHashSet<>())
+						.add(line.substring(sep + 1).trim());
+			}
+		}
+	}
+
+	private static boolean isInPackages(String className, List<String> pkgNames) {
+		for(String pkgName : pkgNames) {
+			if(className.startsWith(pkgName + ".")) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
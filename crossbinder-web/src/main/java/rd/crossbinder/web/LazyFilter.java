@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.web;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.logging.Logger;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+/**
+ * Filter registered in place of a crossbinder filter, which constructs and injects the actual
+ * filter only on the first request that passes through it.
+ *
+ * @author randondiesel
+ *
+ */
+
+public final class LazyFilter implements Filter {
+
+	private static final Logger LOGGER = Logger.getLogger(LazyFilter.class.getName());
+
+	private final Class<?>         type;
+	private final Callable<Filter> factory;
+
+	private volatile FilterConfig config;
+	private volatile Filter       delegate;
+
+	public LazyFilter(Class<?> type, Callable<Filter> factory) {
+		this.type = type;
+		this.factory = factory;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Methods of interface Filter
+
+	@Override
+	public void init(FilterConfig config) throws ServletException {
+		this.config = config;
+	}
+
+	@Override
+	public void doFilter(ServletRequest req, ServletResponse resp, FilterChain chain)
+			throws IOException, ServletException {
+		delegate().doFilter(req, resp, chain);
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if(delegate != null) {
+			delegate.destroy();
+			delegate = null;
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private Filter delegate() throws ServletException {
+		Filter result = delegate;
+		if(result != null) {
+			return result;
+		}
+		synchronized(this) {
+			if(delegate == null) {
+				LOGGER.fine(String.format("creating filter: %s", type.getName()));
+				Filter filter;
+				try {
+					filter = factory.call();
+				}
+				catch(Exception exep) {
+					throw new ServletException(String.format("error creating filter %s",
+							type.getName()), exep);
+				}
+				filter.init(config);
+				delegate = filter;
+			}
+			return delegate;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.web;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.logging.Logger;
+
+import javax.servlet.Servlet;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+/**
+ * Servlet registered in place of a crossbinder servlet, which constructs and injects the actual
+ * servlet only when it is first needed: when the container initializes this servlet at startup if
+ * the servlet is loaded on startup, or on its first request otherwise. Container annotations on the
+ * actual servlet class, such as <code>MultipartConfig</code>, are not seen through this servlet.
+ *
+ * @author randondiesel
+ *
+ */
+
+public final class LazyServlet implements Servlet {
+
+	private static final Logger LOGGER = Logger.getLogger(LazyServlet.class.getName());
+
+	private final Class<?>          type;
+	private final boolean           startupFlag;
+	private final Callable<Servlet> factory;
+
+	private volatile ServletConfig config;
+	private volatile Servlet       delegate;
+
+	/**
+	 * @param startupFlag whether the actual servlet is created when this servlet is initialized,
+	 *        rather than on the first request
+	 */
+
+	public LazyServlet(Class<?> type, boolean startupFlag, Callable<Servlet> factory) {
+		this.type = type;
+		this.startupFlag = startupFlag;
+		this.factory = factory;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Methods of interface Servlet
+
+	@Override
+	public void init(ServletConfig config) throws ServletException {
+		this.config = config;
+		if(startupFlag) {
+			delegate();
+		}
+	}
+
+	@Override
+	public ServletConfig getServletConfig() {
+		return config;
+	}
+
+	@Override
+	public void service(ServletRequest req, ServletResponse resp)
+			throws ServletException, IOException {
+		delegate().service(req, resp);
+	}
+
+	@Override
+	public String getServletInfo() {
+		Servlet current = delegate;
+		return (current == null) ? type.getName() : current.getServletInfo();
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if(delegate != null) {
+			delegate.destroy();
+			delegate = null;
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private Servlet delegate() throws ServletException {
+		Servlet result = delegate;
+		if(result != null) {
+			return result;
+		}
+		synchronized(this) {
+			if(delegate == null) {
+				LOGGER.fine(String.format("creating servlet: %s", type.getName()));
+				Servlet servlet;
+				try {
+					servlet = factory.call();
+				}
+				catch(Exception exep) {
+					throw new ServletException(String.format("error creating servlet %s",
+							type.getName()), exep);
+				}
+				servlet.init(config);
+				delegate = servlet;
+			}
+			return delegate;
+		}
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.web;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Records how long each startup phase took, and how long each component took to construct and to
+ * inject. At the end of startup, the numbers are logged as a single line of
+ * <code>phase=millis</code> pairs, followed by <code>class=construct+inject</code> pairs for the
+ * {@value #SLOWEST_COUNT} slowest components. Components may be recorded from several threads at
+ * once.
+ *
+ * @author randondiesel
+ *
+ */
+
+public final class StartupTimer {
+
+	private static final Logger LOGGER = Logger.getLogger(StartupTimer.class.getName());
+
+	public static final int SLOWEST_COUNT = 10;
+
+	private final long                  startNanos;
+	private final Map<String, Long>     phases;
+	private final Map<Class<?>, long[]> components;
+	private long                        endNanos;
+
+	public StartupTimer() {
+		startNanos = System.nanoTime();
+		phases = new LinkedHashMap<>();
+		components = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Adds the time since <code>phaseStart</code> to the named phase.
+	 *
+	 * @return the current time, as the start of the next phase
+	 */
+
+	public synchronized long endPhase(String name, long phaseStart) {
+		long now = System.nanoTime();
+		phases.merge(name, now - phaseStart, Long::sum);
+		return now;
+	}
+
+	public synchronized void recordComponent(Class<?> type, long constructNanos, long injectNanos) {
+		components.put(type, new long[] {constructNanos, injectNanos});
+	}
+
+	/**
+	 * Ends startup and logs the summary.
+	 */
+
+	public void finish() {
+		synchronized(this) {
+			endNanos = System.nanoTime();
+		}
+		LOGGER.info(summary());
+	}
+
+	public synchronized String summary() {
+		StringBuilder buffer = new StringBuilder("crossbinder startup:");
+		buffer.append(String.format(" total=%d", getTotalMillis()));
+		for(Map.Entry<String, Long> entry : phases.entrySet()) {
+			buffer.append(String.format(" %s=%d", entry.getKey(), toMillis(entry.getValue())));
+		}
+		for(Class<?> type : getSlowestComponents()) {
+			buffer.append(String.format(" %s=%d+%d", type.getName(), getConstructMillis(type),
+					getInjectMillis(type)));
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * @return the time from the creation of this timer to the end of startup, or to now if startup
+	 * has not ended yet
+	 */
+
+	public synchronized long getTotalMillis() {
+		return toMillis(((endNanos == 0) ? System.nanoTime() : endNanos) - startNanos);
+	}
+
+	/**
+	 * @return the time taken by each phase, in the order the phases were first ended
+	 */
+
+	public synchronized Map<String, Long> getPhaseMillis() {
+		Map<String, Long> result = new LinkedHashMap<>();
+		for(Map.Entry<String, Long> entry : phases.entrySet()) {
+			result.put(entry.getKey(), toMillis(entry.getValue()));
+		}
+		return result;
+	}
+
+	/**
+	 * @return the {@value #SLOWEST_COUNT} components that took longest to construct and inject,
+	 * slowest first
+	 */
+
+	public synchronized List<Class<?>> getSlowestComponents() {
+		List<Map.Entry<Class<?>, long[]>> slowest = new ArrayList<>(components.entrySet());
+		slowest.sort((e1, e2) -> Long.compare(e2.getValue()[0] + e2.getValue()[1],
+				e1.getValue()[0] + e1.getValue()[1]));
+		List<Class<?>> result = new ArrayList<>();
+		for(Map.Entry<Class<?>, long[]> entry : slowest.subList(0, Math.min(SLOWEST_COUNT,
+				slowest.size()))) {
+			result.add(entry.getKey());
+		}
+		return result;
+	}
+
+	public synchronized long getConstructMillis(Class<?> type) {
+		long[] times = components.get(type);
+		return (times == null) ? 0 : toMillis(times[0]);
+	}
+
+	public synchronized long getInjectMillis(Class<?> type) {
+		long[] times = components.get(type);
+		return (times == null) ? 0 : toMillis(times[1]);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static long toMillis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class ComponentIndexFileTest {
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	@Test
+	public void packagesOnlyInIndexedEntriesAreIndexed() throws Exception {
+		File indexed = tempDir.newFolder("indexed");
+		writeIndex(indexed, "java.lang.Deprecated split.One", "java.lang.Deprecated whole.Two");
+		new File(indexed, "split").mkdirs();
+		new File(indexed, "whole/sub").mkdirs();
+		new File(indexed, "unlisted").mkdirs();
+		File plain = tempDir.newFolder("plain");
+		new File(plain, "split").mkdirs();
+
+		ComponentIndexFile index = ComponentIndexFile.load(loaderOf(indexed, plain));
+		assertEquals(Arrays.asList("whole"), index.getIndexedPackages(Arrays.asList("split",
+				"whole", "unlisted", "absent")));
+	}
+
+	@Test
+	public void noIndexCoversNoPackage() throws Exception {
+		File plain = tempDir.newFolder("plain");
+		new File(plain, "app").mkdirs();
+		ComponentIndexFile index = ComponentIndexFile.load(loaderOf(plain));
+		assertTrue(index.getIndexedPackages(Arrays.asList("app")).isEmpty());
+		assertTrue(index.listClasses(Deprecated.class, Arrays.asList("app")).isEmpty());
+	}
+
+	@Test
+	public void listClassesByAnnotationAndPackage() throws Exception {
+		File indexed = tempDir.newFolder("indexed");
+		writeIndex(indexed, "# comment", "java.lang.Deprecated java.util.ArrayList",
+				"java.lang.Deprecated java.util.concurrent.Missing",
+				"java.lang.FunctionalInterface java.util.function.Function");
+
+		ComponentIndexFile index = ComponentIndexFile.load(loaderOf(indexed));
+		assertEquals(Arrays.asList(ArrayList.class), index.listClasses(Deprecated.class,
+				Arrays.asList("java.util")));
+		assertTrue(index.listClasses(Deprecated.class, Arrays.asList("java.lang")).isEmpty());
+		assertEquals(Collections.emptyList(), index.listClasses(Override.class,
+				Arrays.asList("java.util")));
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private static void writeIndex(File root, String... lines) throws IOException {
+		File file = new File(root, ComponentIndexFile.INDEX_FILE);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+	}
+
+	private static ClassLoader loaderOf(File... roots) throws IOException {
+		URL[] urls = new URL[roots.length];
+		for(int i=0; i<roots.length; i++) {
+			urls[i] = roots[i].toURI().toURL();
+		}
+		return new URLClassLoader(urls, null);
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class LazyFilterTest {
+
+	private AtomicInteger  created;
+	private CountingFilter filter;
+	private FilterConfig   config;
+
+	@Before
+	public void setUp() {
+		created = new AtomicInteger();
+		filter = new CountingFilter();
+		config = new NamedConfig();
+	}
+
+	@Test
+	public void filterIsCreatedOnFirstRequest() throws Exception {
+		LazyFilter lazy = new LazyFilter(CountingFilter.class, factory());
+		lazy.init(config);
+		assertEquals(0, created.get());
+
+		AtomicInteger passed = new AtomicInteger();
+		FilterChain chain = (req, resp) -> passed.incrementAndGet();
+		lazy.doFilter(null, null, chain);
+		lazy.doFilter(null, null, chain);
+		assertEquals(1, created.get());
+		assertSame(config, filter.config);
+		assertEquals(2, filter.requests);
+		assertEquals(2, passed.get());
+	}
+
+	@Test
+	public void failedCreationIsRetried() throws Exception {
+		LazyFilter lazy = new LazyFilter(CountingFilter.class, () -> {
+			if(created.incrementAndGet() == 1) {
+				throw new IllegalStateException("not ready");
+			}
+			return filter;
+		});
+		lazy.init(config);
+		try {
+			lazy.doFilter(null, null, (req, resp) -> { });
+			fail("creation failure not reported");
+		}
+		catch(ServletException exep) {
+			assertEquals(IllegalStateException.class, exep.getCause().getClass());
+		}
+		lazy.doFilter(null, null, (req, resp) -> { });
+		assertEquals(2, created.get());
+		assertEquals(1, filter.requests);
+	}
+
+	@Test
+	public void destroyBeforeCreationCreatesNothing() throws Exception {
+		LazyFilter lazy = new LazyFilter(CountingFilter.class, factory());
+		lazy.init(config);
+		lazy.destroy();
+		assertEquals(0, created.get());
+		assertEquals(0, filter.destroyed);
+	}
+
+	@Test
+	public void destroyReachesCreatedFilterOnce() throws Exception {
+		LazyFilter lazy = new LazyFilter(CountingFilter.class, factory());
+		lazy.init(config);
+		lazy.doFilter(null, null, (req, resp) -> { });
+		lazy.destroy();
+		lazy.destroy();
+		assertEquals(1, filter.destroyed);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private Callable<Filter> factory() {
+		return () -> {
+			created.incrementAndGet();
+			return filter;
+		};
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner classes for a sample filter and its configuration
+
+	public static class CountingFilter implements Filter {
+
+		FilterConfig config;
+		int          requests;
+		int          destroyed;
+
+		@Override
+		public void init(FilterConfig filterConfig) {
+			config = filterConfig;
+		}
+
+		@Override
+		public void doFilter(ServletRequest req, ServletResponse resp, FilterChain chain)
+				throws IOException, ServletException {
+			requests++;
+			chain.doFilter(req, resp);
+		}
+
+		@Override
+		public void destroy() {
+			destroyed++;
+		}
+	}
+
+	static class NamedConfig implements FilterConfig {
+
+		@Override
+		public String getFilterName() {
+			return "counting";
+		}
+
+		@Override
+		public ServletContext getServletContext() {
+			return null;
+		}
+
+		@Override
+		public String getInitParameter(String name) {
+			return null;
+		}
+
+		@Override
+		public Enumeration<String> getInitParameterNames() {
+			return Collections.emptyEnumeration();
+		}
+	}
+}
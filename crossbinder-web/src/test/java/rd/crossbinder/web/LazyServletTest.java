@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) The original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package rd.crossbinder.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.GenericServlet;
+import javax.servlet.Servlet;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author randondiesel
+ *
+ */
+
+public class LazyServletTest {
+
+	private AtomicInteger   created;
+	private CountingServlet servlet;
+	private ServletConfig   config;
+
+	@Before
+	public void setUp() {
+		created = new AtomicInteger();
+		servlet = new CountingServlet();
+		config = new NamedConfig();
+	}
+
+	@Test
+	public void servletLoadedOnStartupIsCreatedOnInit() throws Exception {
+		LazyServlet lazy = new LazyServlet(CountingServlet.class, true, factory());
+		lazy.init(config);
+		assertEquals(1, created.get());
+		assertSame(config, servlet.getServletConfig());
+
+		lazy.service(null, null);
+		assertEquals(1, created.get());
+		assertEquals(1, servlet.requests);
+	}
+
+	@Test
+	public void servletIsCreatedOnFirstRequest() throws Exception {
+		LazyServlet lazy = new LazyServlet(CountingServlet.class, false, factory());
+		lazy.init(config);
+		assertEquals(0, created.get());
+		assertEquals(CountingServlet.class.getName(), lazy.getServletInfo());
+
+		lazy.service(null, null);
+		lazy.service(null, null);
+		assertEquals(1, created.get());
+		assertEquals(2, servlet.requests);
+		assertSame(config, servlet.getServletConfig());
+		assertEquals("counting", lazy.getServletInfo());
+	}
+
+	@Test
+	public void failedCreationIsRetried() throws Exception {
+		LazyServlet lazy = new LazyServlet(CountingServlet.class, false, () -> {
+			if(created.incrementAndGet() == 1) {
+				throw new IllegalStateException("not ready");
+			}
+			return servlet;
+		});
+		lazy.init(config);
+		try {
+			lazy.service(null, null);
+			fail("creation failure not reported");
+		}
+		catch(ServletException exep) {
+			assertEquals(IllegalStateException.class, exep.getCause().getClass());
+		}
+		lazy.service(null, null);
+		assertEquals(2, created.get());
+		assertEquals(1, servlet.requests);
+	}
+
+	@Test
+	public void destroyBeforeCreationCreatesNothing() throws Exception {
+		LazyServlet lazy = new LazyServlet(CountingServlet.class, false, factory());
+		lazy.init(config);
+		lazy.destroy();
+		assertEquals(0, created.get());
+		assertEquals(0, servlet.destroyed);
+	}
+
+	@Test
+	public void destroyReachesCreatedServletOnce() throws Exception {
+		LazyServlet lazy = new LazyServlet(CountingServlet.class, true, factory());
+		lazy.init(config);
+		lazy.destroy();
+		lazy.destroy();
+		assertEquals(1, servlet.destroyed);
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Helper methods
+
+	private Callable<Servlet> factory() {
+		return () -> {
+			created.incrementAndGet();
+			return servlet;
+		};
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Inner classes for a sample servlet and its configuration
+
+	public static class CountingServlet extends GenericServlet {
+
+		private static final long serialVersionUID = 1L;
+
+		int requests;
+		int destroyed;
+
+		@Override
+		public void service(ServletRequest req, ServletResponse resp) {
+			requests++;
+		}
+
+		@Override
+		public String getServletInfo() {
+			return "counting";
+		}
+
+		@Override
+		public void destroy() {
+			destroyed++;
+		}
+	}
+
+	static class NamedConfig implements ServletConfig {
+
+		@Override
+		public String getServletName() {
+			return "counting";
+		}
+
+		@Override
+		public ServletContext getServletContext() {
+			return null;
+		}
+
+		@Override
+		public String getInitParameter(String name) {
+			return null;
+		}
+
+		@Override
+		public Enumeration<String> getInitParameterNames() {
+			return Collections.emptyEnumeration();
+		}
+	}
+}